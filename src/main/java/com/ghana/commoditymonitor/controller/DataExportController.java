@@ -1,39 +1,59 @@
 package com.ghana.commoditymonitor.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ghana.commoditymonitor.dto.request.ExportRequestDto;
 import com.ghana.commoditymonitor.dto.response.ApiResponse;
+import com.ghana.commoditymonitor.dto.response.ExportJobDto;
 import com.ghana.commoditymonitor.dto.response.ExportLogDto;
+import com.ghana.commoditymonitor.enums.ContentCoding;
+import com.ghana.commoditymonitor.enums.ExportType;
 import com.ghana.commoditymonitor.security.CurrentUser;
 import com.ghana.commoditymonitor.security.UserPrincipal;
 import com.ghana.commoditymonitor.service.DataExportService;
+import com.ghana.commoditymonitor.service.ExportJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/export")
 @RequiredArgsConstructor
-@Tag(name = "Data Export", description = "Endpoints for exporting price records to CSV and Excel")
+@Tag(name = "Data Export", description = "Endpoints for exporting price records to CSV, Excel, Parquet and NDJSON")
 public class DataExportController {
 
     private final DataExportService dataExportService;
+    private final ExportJobService exportJobService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/price-records")
     @PreAuthorize("hasAnyRole('ADMIN', 'ANALYST', 'FIELD_AGENT')")
-    @Operation(summary = "Export price records to CSV or Excel", 
-               description = "Accessible by ADMIN, ANALYST, and FIELD_AGENT roles only")
-    public ResponseEntity<byte[]> exportPriceRecords(
+    @Operation(summary = "Export price records to CSV, Excel, Parquet or NDJSON", 
+               description = "Set incrementalSince to lastExport to receive only records created or approved since "
+                           + "your previous export with the same filters. "
+                           + "Excel exports too large to build in the request are queued as a background job "
+                           + "and answered with 202 and the job location. "
+                           + "Accessible by ADMIN, ANALYST, and FIELD_AGENT roles only")
+    public ResponseEntity<StreamingResponseBody> exportPriceRecords(
             @Valid @RequestBody ExportRequestDto request,
             @CurrentUser UserPrincipal principal,
             HttpServletRequest httpRequest) {
@@ -43,18 +63,95 @@ public class DataExportController {
         log.info("REST request to export price records: type={}, user={}, ip={}", 
                  request.exportType(), principal.username(), ipAddress);
 
-        DataExportService.ExportResult result = dataExportService.exportPriceRecords(
-            request, principal, ipAddress
+        ExportRequestDto resolved = dataExportService.resolveIncremental(request, principal);
+
+        if (dataExportService.requiresBackgroundJob(resolved)) {
+            ExportJobDto job = exportJobService.submit(resolved, principal, ipAddress);
+            ApiResponse<ExportJobDto> body = ApiResponse.ok("Export is too large to build now and has been queued", job);
+            // The declared body type selects the streaming return handler, so the JSON is written by hand
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/v1/export/jobs/" + job.id()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, body));
+        }
+
+        DataExportService.ExportStream result = dataExportService.exportPriceRecords(
+            resolved, principal, ipAddress, httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)
         );
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_TYPE, result.contentType());
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + result.filename() + "\"");
-        headers.add(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
-        headers.add(HttpHeaders.PRAGMA, "no-cache");
-        headers.add(HttpHeaders.EXPIRES, "0");
+        return toStreamingResponse(result, true);
+    }
+
+    @GetMapping("/price-records/stream")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ANALYST', 'FIELD_AGENT')")
+    @Operation(summary = "Stream price records as NDJSON",
+               description = "One JSON object per line, streamed from the database; takes the same filters as the export. "
+                           + "Accessible by ADMIN, ANALYST, and FIELD_AGENT roles only")
+    public ResponseEntity<StreamingResponseBody> streamPriceRecords(
+            @RequestParam(required = false) List<Long> commodityIds,
+            @RequestParam(required = false) List<Long> marketIds,
+            @RequestParam(required = false) List<Long> cityIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @CurrentUser UserPrincipal principal,
+            HttpServletRequest httpRequest) {
+
+        String ipAddress = extractIpAddress(httpRequest);
+
+        log.info("REST request to stream price records as NDJSON: user={}, ip={}", principal.username(), ipAddress);
+
+        ExportRequestDto request = new ExportRequestDto(
+            commodityIds, marketIds, cityIds, fromDate, toDate, ExportType.NDJSON, false, null, null
+        );
+        DataExportService.ExportStream result = dataExportService.exportPriceRecords(
+            request, principal, ipAddress, httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)
+        );
 
-        return new ResponseEntity<>(result.data(), headers, HttpStatus.OK);
+        return toStreamingResponse(result, false);
+    }
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ANALYST', 'FIELD_AGENT')")
+    @Operation(summary = "Start a background export job",
+               description = "Queues the export and returns immediately; poll the job and download the file when it completes")
+    public ResponseEntity<ApiResponse<ExportJobDto>> submitExportJob(
+            @Valid @RequestBody ExportRequestDto request,
+            @CurrentUser UserPrincipal principal,
+            HttpServletRequest httpRequest) {
+
+        log.info("REST request to queue export job: type={}, user={}", request.exportType(), principal.username());
+
+        ExportJobDto job = exportJobService.submit(
+            dataExportService.resolveIncremental(request, principal), principal, extractIpAddress(httpRequest));
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/v1/export/jobs/" + job.id()))
+                .body(ApiResponse.ok("Export job queued", job));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get export job progress", description = "Owner or ADMIN only")
+    public ResponseEntity<ApiResponse<ExportJobDto>> getExportJob(
+            @PathVariable Long id,
+            @CurrentUser UserPrincipal principal) {
+        return ResponseEntity.ok(ApiResponse.ok(exportJobService.getJob(id, principal)));
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Download a completed export job", description = "Owner or ADMIN only")
+    public ResponseEntity<Resource> downloadExportJob(
+            @PathVariable Long id,
+            @CurrentUser UserPrincipal principal) {
+
+        ExportJobService.Artifact artifact = exportJobService.getArtifact(id, principal);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, artifact.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + artifact.filename() + "\"")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
+                .body(new FileSystemResource(artifact.path()));
     }
 
     @GetMapping("/my-exports")
@@ -86,6 +183,24 @@ public class DataExportController {
         return ResponseEntity.ok(ApiResponse.ok(history));
     }
 
+    private ResponseEntity<StreamingResponseBody> toStreamingResponse(DataExportService.ExportStream result,
+                                                                      boolean attachment) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, result.contentType());
+        if (attachment) {
+            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + result.filename() + "\"");
+        }
+        headers.add(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
+        headers.add(HttpHeaders.PRAGMA, "no-cache");
+        headers.add(HttpHeaders.EXPIRES, "0");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (result.contentCoding() != ContentCoding.IDENTITY) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, result.contentCoding().getToken());
+        }
+
+        return new ResponseEntity<>(result.body(), headers, HttpStatus.OK);
+    }
+
     private String extractIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
@@ -1,10 +1,11 @@
 package com.ghana.commoditymonitor.controller;
 
 import com.ghana.commoditymonitor.dto.response.ApiResponse;
+import com.ghana.commoditymonitor.dto.response.MarketHealthHistoryDto;
 import com.ghana.commoditymonitor.dto.response.MarketHealthScoreDto;
-import com.ghana.commoditymonitor.entity.MarketHealthScore;
 import com.ghana.commoditymonitor.security.CurrentUser;
 import com.ghana.commoditymonitor.security.UserPrincipal;
+import com.ghana.commoditymonitor.service.MarketHealthHistoryService;
 import com.ghana.commoditymonitor.service.MarketHealthScoreService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,6 +16,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -24,6 +26,7 @@ import java.util.List;
 public class MarketHealthController {
 
     private final MarketHealthScoreService healthScoreService;
+    private final MarketHealthHistoryService healthHistoryService;
 
     @GetMapping
     @Operation(summary = "Get all latest market health scores", 
@@ -46,6 +49,19 @@ public class MarketHealthController {
                 healthScoreService.getLatestScoreForMarket(marketId, principal)));
     }
 
+    @GetMapping("/{marketId}/history")
+    @Operation(summary = "Get health score history for a market",
+               description = "Daily averages for recent scores, weekly and monthly averages further back. "
+                       + "Grade only for guests")
+    public ResponseEntity<ApiResponse<MarketHealthHistoryDto>> getScoreHistory(
+            @PathVariable Long marketId,
+            @RequestParam(defaultValue = "24") int months,
+            @CurrentUser UserPrincipal principal) {
+        log.info("REST request to get {} months of health history for market: {}", months, marketId);
+        return ResponseEntity.ok(ApiResponse.ok(
+                healthHistoryService.getHistory(marketId, months, principal)));
+    }
+
     @GetMapping("/top")
     @Operation(summary = "Get top performing markets", 
                description = "Returns markets with highest health scores")
@@ -57,6 +73,36 @@ public class MarketHealthController {
                 healthScoreService.getTopPerformingMarkets(limit, principal)));
     }
 
+    @GetMapping("/bottom")
+    @Operation(summary = "Get bottom performing markets",
+               description = "Returns markets with lowest health scores")
+    public ResponseEntity<ApiResponse<List<MarketHealthScoreDto>>> getBottomPerformingMarkets(
+            @RequestParam(defaultValue = "5") int limit,
+            @CurrentUser UserPrincipal principal) {
+        log.info("REST request to get bottom {} performing markets", limit);
+        return ResponseEntity.ok(ApiResponse.ok(
+                healthScoreService.getBottomPerformingMarkets(limit, principal)));
+    }
+
+    @GetMapping("/grades")
+    @Operation(summary = "Get grade distribution",
+               description = "Returns the number of markets currently holding each grade")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getGradeHistogram() {
+        log.info("REST request to get market health grade distribution");
+        return ResponseEntity.ok(ApiResponse.ok(healthScoreService.getGradeHistogram()));
+    }
+
+    @GetMapping("/grades/{grade}")
+    @Operation(summary = "Get markets by grade",
+               description = "Returns markets currently holding the given grade, highest score first")
+    public ResponseEntity<ApiResponse<List<MarketHealthScoreDto>>> getMarketsByGrade(
+            @PathVariable String grade,
+            @CurrentUser UserPrincipal principal) {
+        log.info("REST request to get markets with grade {}", grade);
+        return ResponseEntity.ok(ApiResponse.ok(
+                healthScoreService.getMarketsByGrade(grade, principal)));
+    }
+
     @GetMapping("/underperforming")
     @Operation(summary = "Get underperforming markets", 
                description = "Returns markets with grade D or F")
@@ -74,8 +120,8 @@ public class MarketHealthController {
                description = "Accessible by ADMIN only")
     public ResponseEntity<ApiResponse<String>> computeAllMarketScores() {
         log.info("REST request to recompute all market health scores");
-        List<MarketHealthScore> scores = healthScoreService.computeAllMarketScores();
+        int scored = healthScoreService.computeAllMarketScores();
         return ResponseEntity.ok(ApiResponse.ok(
-                String.format("Successfully computed health scores for %d markets", scores.size())));
+                String.format("Successfully computed health scores for %d markets", scored)));
     }
 }
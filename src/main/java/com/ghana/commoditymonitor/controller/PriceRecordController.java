@@ -4,9 +4,12 @@ import com.ghana.commoditymonitor.dto.request.PriceRecordApprovalDto;
 import com.ghana.commoditymonitor.dto.request.PriceRecordRequestDto;
 import com.ghana.commoditymonitor.dto.response.ApiResponse;
 import com.ghana.commoditymonitor.dto.response.PendingSubmissionResponseDto;
+import com.ghana.commoditymonitor.dto.response.PriceRecordAuditResponseDto;
 import com.ghana.commoditymonitor.dto.response.PriceRecordResponseDto;
+import com.ghana.commoditymonitor.enums.PendingQueueSort;
 import com.ghana.commoditymonitor.security.CurrentUser;
 import com.ghana.commoditymonitor.security.UserPrincipal;
+import com.ghana.commoditymonitor.service.PendingReviewQueue;
 import com.ghana.commoditymonitor.service.PriceRecordService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -45,6 +48,14 @@ public class PriceRecordController {
         return ResponseEntity.ok(ApiResponse.ok(priceRecordService.getPriceRecordById(id)));
     }
 
+    @GetMapping("/{id}/audit")
+    @Operation(summary = "Get the audit history of a price record",
+               description = "Newest first; entries not yet written to the database are marked persisted=false")
+    public ResponseEntity<ApiResponse<List<PriceRecordAuditResponseDto>>> getAuditTrail(@PathVariable Long id) {
+        log.info("REST request to get audit trail for price record: {}", id);
+        return ResponseEntity.ok(ApiResponse.ok(priceRecordService.getAuditTrail(id)));
+    }
+
     @GetMapping("/commodity/{commodityId}")
     @Operation(summary = "Get price records by commodity ID")
     public ResponseEntity<ApiResponse<List<PriceRecordResponseDto>>> getPriceRecordsByCommodity(@PathVariable Long commodityId) {
@@ -67,6 +78,22 @@ public class PriceRecordController {
         return ResponseEntity.ok(ApiResponse.ok(priceRecordService.getPendingRecords()));
     }
 
+    @GetMapping("/pending/queue")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Page through the pending review queue",
+               description = "Filterable by submitting agent, city and commodity; ordered by AGE (oldest first) or OUTLIER via orderBy. Accessible by ADMIN only")
+    public ResponseEntity<ApiResponse<Page<PendingSubmissionResponseDto>>> getPendingQueue(
+            @RequestParam(required = false) Long agentId,
+            @RequestParam(required = false) Long cityId,
+            @RequestParam(required = false) Long commodityId,
+            @RequestParam(defaultValue = "AGE") PendingQueueSort orderBy,
+            Pageable pageable) {
+        log.info("REST request to get pending queue (agent: {}, city: {}, commodity: {}, orderBy: {})",
+                agentId, cityId, commodityId, orderBy);
+        PendingReviewQueue.Filter filter = new PendingReviewQueue.Filter(agentId, cityId, commodityId);
+        return ResponseEntity.ok(ApiResponse.ok(priceRecordService.getPendingQueue(filter, orderBy, pageable)));
+    }
+
     @GetMapping("/my-submissions")
     @PreAuthorize("hasAnyRole('FIELD_AGENT', 'ADMIN')")
     @Operation(summary = "Get my submitted price records", description = "Accessible by FIELD_AGENT and ADMIN")
@@ -1,11 +1,14 @@
 package com.ghana.commoditymonitor.controller;
 
 import com.ghana.commoditymonitor.dto.response.ApiResponse;
+import com.ghana.commoditymonitor.dto.response.SeasonalLocationPatternDto;
 import com.ghana.commoditymonitor.dto.response.SeasonalOutlookDto;
 import com.ghana.commoditymonitor.dto.response.SeasonalPatternDto;
+import com.ghana.commoditymonitor.enums.SeasonalScope;
 import com.ghana.commoditymonitor.security.CurrentUser;
 import com.ghana.commoditymonitor.security.UserPrincipal;
 import com.ghana.commoditymonitor.service.SeasonalPatternService;
+import com.ghana.commoditymonitor.service.SeasonalRecomputationRunner;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +27,7 @@ import java.util.List;
 public class SeasonalPatternController {
 
     private final SeasonalPatternService seasonalPatternService;
+    private final SeasonalRecomputationRunner seasonalRecomputationRunner;
 
     @GetMapping("/{commodityId}")
     @Operation(summary = "Get seasonal patterns for a commodity", 
@@ -67,14 +71,52 @@ public class SeasonalPatternController {
                 seasonalPatternService.getCurrentMonthOutlook(commodityId)));
     }
 
+    @GetMapping("/{commodityId}/cities/{cityId}")
+    @Operation(summary = "Get seasonal patterns for a commodity in a city",
+               description = "Guests see 3-month preview, authenticated users see all months with data")
+    public ResponseEntity<ApiResponse<SeasonalLocationPatternDto>> getPatternsForCity(
+            @PathVariable Long commodityId,
+            @PathVariable Long cityId,
+            @CurrentUser UserPrincipal principal) {
+        log.info("REST request to get seasonal patterns for commodity: {} in city: {}", commodityId, cityId);
+        return ResponseEntity.ok(ApiResponse.ok(
+                seasonalPatternService.getLocationPatterns(commodityId, SeasonalScope.CITY, cityId, principal)));
+    }
+
+    @GetMapping("/{commodityId}/markets/{marketId}")
+    @Operation(summary = "Get seasonal patterns for a commodity in a market",
+               description = "Guests see 3-month preview, authenticated users see all months with data")
+    public ResponseEntity<ApiResponse<SeasonalLocationPatternDto>> getPatternsForMarket(
+            @PathVariable Long commodityId,
+            @PathVariable Long marketId,
+            @CurrentUser UserPrincipal principal) {
+        log.info("REST request to get seasonal patterns for commodity: {} in market: {}", commodityId, marketId);
+        return ResponseEntity.ok(ApiResponse.ok(
+                seasonalPatternService.getLocationPatterns(commodityId, SeasonalScope.MARKET, marketId, principal)));
+    }
+
     @PostMapping("/recompute")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Recompute seasonal patterns for all commodities", 
                description = "Accessible by ADMIN only")
     public ResponseEntity<ApiResponse<String>> computeAllPatterns() {
         log.info("REST request to recompute all seasonal patterns");
-        seasonalPatternService.computeAllPatterns();
-        return ResponseEntity.ok(ApiResponse.ok("Seasonal patterns recomputed successfully"));
+        SeasonalRecomputationRunner.RunSummary summary = seasonalRecomputationRunner.recomputeAll();
+        return ResponseEntity.ok(ApiResponse.ok(String.format(
+                "Seasonal patterns recomputed for %d of %d commodities (%d failed) in %dms",
+                summary.computed(), summary.commodities(), summary.failed(), summary.durationMs())));
+    }
+
+    @PostMapping("/recompute/locations")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recompute city and market seasonal patterns for all commodities",
+               description = "Accessible by ADMIN only")
+    public ResponseEntity<ApiResponse<String>> computeAllLocationPatterns() {
+        log.info("REST request to recompute all location seasonal patterns");
+        SeasonalRecomputationRunner.RunSummary summary = seasonalRecomputationRunner.recomputeAllLocations();
+        return ResponseEntity.ok(ApiResponse.ok(String.format(
+                "Location seasonal patterns recomputed for %d of %d commodities (%d failed) in %dms",
+                summary.computed(), summary.commodities(), summary.failed(), summary.durationMs())));
     }
 
     @PostMapping("/recompute/{commodityId}")
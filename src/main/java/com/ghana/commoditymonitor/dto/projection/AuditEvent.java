@@ -0,0 +1,17 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * An audit entry captured on the write path and not yet necessarily persisted.
+ */
+public record AuditEvent(
+    Long priceRecordId,
+    String action,
+    Long performedById,
+    BigDecimal oldPrice,
+    BigDecimal newPrice,
+    String note,
+    OffsetDateTime performedAt
+) {}
@@ -0,0 +1,6 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+/**
+ * Immutable snapshot of a city held by the reference data catalog.
+ */
+public record CityRef(Long id, String name, String region) {}
@@ -0,0 +1,6 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+/**
+ * Immutable snapshot of a commodity held by the reference data catalog.
+ */
+public record CommodityRef(Long id, String name, String category, String unit) {}
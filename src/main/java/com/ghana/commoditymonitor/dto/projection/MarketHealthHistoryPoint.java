@@ -0,0 +1,21 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+import com.ghana.commoditymonitor.enums.HealthHistoryResolution;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One period of a market's score history: a day of raw scores, or a stored weekly or monthly roll-up.
+ */
+public record MarketHealthHistoryPoint(
+    HealthHistoryResolution resolution,
+    LocalDate periodStart,
+    BigDecimal avgScore,
+    BigDecimal minScore,
+    BigDecimal maxScore,
+    BigDecimal avgDataFreshness,
+    BigDecimal avgPriceStability,
+    BigDecimal avgCoverage,
+    int samples
+) {}
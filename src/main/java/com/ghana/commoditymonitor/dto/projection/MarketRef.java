@@ -0,0 +1,6 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+/**
+ * Immutable snapshot of a market (with its city name) held by the reference data catalog.
+ */
+public record MarketRef(Long id, String name, Long cityId, String cityName) {}
@@ -0,0 +1,27 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+import com.ghana.commoditymonitor.enums.PriceRecordStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only projection of a submission awaiting review.
+ */
+public record PendingSubmissionView(
+    Long id,
+    Long commodityId,
+    String commodityName,
+    Long marketId,
+    String marketName,
+    Long cityId,
+    String cityName,
+    BigDecimal price,
+    LocalDate recordedDate,
+    String source,
+    PriceRecordStatus status,
+    Long submittedById,
+    String submittedByUsername,
+    OffsetDateTime createdAt
+) {}
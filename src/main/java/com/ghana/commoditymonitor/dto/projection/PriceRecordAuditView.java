@@ -0,0 +1,18 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only projection of a persisted audit row.
+ */
+public record PriceRecordAuditView(
+    Long id,
+    Long priceRecordId,
+    String action,
+    String performedByUsername,
+    BigDecimal oldPrice,
+    BigDecimal newPrice,
+    String note,
+    OffsetDateTime performedAt
+) {}
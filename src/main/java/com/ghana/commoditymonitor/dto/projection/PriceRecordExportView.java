@@ -0,0 +1,23 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+import com.ghana.commoditymonitor.enums.PriceRecordStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat row shape written by the CSV and Excel exporters.
+ */
+public record PriceRecordExportView(
+    Long id,
+    String commodityName,
+    String category,
+    String unit,
+    String marketName,
+    String cityName,
+    BigDecimal price,
+    LocalDate recordedDate,
+    String source,
+    String submittedByUsername,
+    PriceRecordStatus status
+) {}
@@ -0,0 +1,29 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+import com.ghana.commoditymonitor.enums.PriceRecordStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only projection of a price record with its reference names already joined in.
+ * Selected directly by JPQL constructor expressions, so no managed entity is created.
+ */
+public record PriceRecordView(
+    Long id,
+    Long commodityId,
+    String commodityName,
+    Long marketId,
+    String marketName,
+    String cityName,
+    BigDecimal price,
+    LocalDate recordedDate,
+    String source,
+    PriceRecordStatus status,
+    String submittedByUsername,
+    String reviewedByUsername,
+    OffsetDateTime reviewedAt,
+    String rejectionReason,
+    OffsetDateTime createdAt
+) {}
@@ -0,0 +1,21 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+import com.ghana.commoditymonitor.enums.SeasonalScope;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One stored location seasonal series. Each list has 12 entries, January first, with nulls for
+ * months the location has no prices in.
+ */
+public record SeasonalLocationSeries(
+    Long commodityId,
+    SeasonalScope scope,
+    Long locationId,
+    List<BigDecimal> seasonalIndices,
+    List<BigDecimal> avgPrices,
+    List<Integer> sampleSizes,
+    int dataYearFrom,
+    int dataYearTo
+) {}
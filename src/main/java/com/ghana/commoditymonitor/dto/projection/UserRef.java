@@ -0,0 +1,6 @@
+package com.ghana.commoditymonitor.dto.projection;
+
+/**
+ * Immutable snapshot of a user's identity held by the reference data catalog.
+ */
+public record UserRef(Long id, String username) {}
@@ -1,11 +1,17 @@
 package com.ghana.commoditymonitor.dto.request;
 
 import com.ghana.commoditymonitor.enums.ExportType;
+import com.ghana.commoditymonitor.enums.IncrementalSince;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 
+/**
+ * @param incrementalSince export only records created or approved since this baseline
+ * @param changedSince     export only records created or approved after this instant
+ */
 public record ExportRequestDto(
     List<Long> commodityIds,
     List<Long> marketIds,
@@ -14,11 +20,21 @@ public record ExportRequestDto(
     LocalDate toDate,
     @NotNull(message = "Export type is required")
     ExportType exportType,
-    Boolean includeAnalyticsSummary
+    Boolean includeAnalyticsSummary,
+    IncrementalSince incrementalSince,
+    OffsetDateTime changedSince
 ) {
     public ExportRequestDto {
         if (includeAnalyticsSummary == null) {
             includeAnalyticsSummary = false;
         }
     }
+
+    /**
+     * This request with its baseline resolved to an explicit instant; {@code null} exports everything.
+     */
+    public ExportRequestDto withChangedSince(OffsetDateTime since) {
+        return new ExportRequestDto(commodityIds, marketIds, cityIds, fromDate, toDate, exportType,
+            includeAnalyticsSummary, null, since);
+    }
 }
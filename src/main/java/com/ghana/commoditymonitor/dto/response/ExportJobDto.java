@@ -0,0 +1,23 @@
+package com.ghana.commoditymonitor.dto.response;
+
+import com.ghana.commoditymonitor.enums.ExportJobStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * State of an asynchronous export job. {@code rowsWritten} advances while the job runs;
+ * {@code downloadUrl} is set once the artifact is ready.
+ */
+public record ExportJobDto(
+    Long id,
+    String exportType,
+    ExportJobStatus status,
+    Integer rowsWritten,
+    Long fileSizeBytes,
+    Long durationMs,
+    String errorMessage,
+    OffsetDateTime submittedAt,
+    OffsetDateTime completedAt,
+    OffsetDateTime expiresAt,
+    String downloadUrl
+) {}
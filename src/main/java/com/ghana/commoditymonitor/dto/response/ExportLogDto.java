@@ -1,5 +1,7 @@
 package com.ghana.commoditymonitor.dto.response;
 
+import com.ghana.commoditymonitor.enums.ExportJobStatus;
+
 import java.time.OffsetDateTime;
 
 public record ExportLogDto(
@@ -8,6 +10,11 @@ public record ExportLogDto(
     String exportType,
     Integer rowCount,
     Long fileSizeKb,
+    Long rawSizeKb,
+    String contentEncoding,
+    boolean cacheHit,
     String ipAddress,
-    OffsetDateTime exportedAt
+    OffsetDateTime exportedAt,
+    ExportJobStatus status,
+    Long durationMs
 ) {}
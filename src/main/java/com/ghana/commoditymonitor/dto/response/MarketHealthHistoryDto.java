@@ -0,0 +1,31 @@
+package com.ghana.commoditymonitor.dto.response;
+
+import com.ghana.commoditymonitor.enums.HealthHistoryResolution;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record MarketHealthHistoryDto(
+    Long marketId,
+    String marketName,
+    String cityName,
+    List<Point> points
+) {
+
+    /**
+     * One period, oldest first. Guests get the grade of the period's average score only.
+     */
+    public record Point(
+        HealthHistoryResolution resolution,
+        LocalDate periodStart,
+        String grade,
+        BigDecimal avgScore,
+        BigDecimal minScore,
+        BigDecimal maxScore,
+        BigDecimal avgDataFreshness,
+        BigDecimal avgPriceStability,
+        BigDecimal avgCoverage,
+        Integer samples
+    ) {}
+}
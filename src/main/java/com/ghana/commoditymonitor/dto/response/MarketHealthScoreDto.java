@@ -1,5 +1,7 @@
 package com.ghana.commoditymonitor.dto.response;
 
+import com.ghana.commoditymonitor.dto.projection.MarketRef;
+import com.ghana.commoditymonitor.entity.MarketHealthLatest;
 import com.ghana.commoditymonitor.entity.MarketHealthScore;
 
 import java.math.BigDecimal;
@@ -16,11 +18,11 @@ public record MarketHealthScoreDto(
     String grade,
     OffsetDateTime computedAt
 ) {
-    public static MarketHealthScoreDto forGuest(MarketHealthScore entity) {
+    public static MarketHealthScoreDto forGuest(MarketHealthScore entity, MarketRef market) {
         return new MarketHealthScoreDto(
-            entity.getMarket().getId(),
-            entity.getMarket().getName(),
-            entity.getMarket().getCity().getName(),
+            market.id(),
+            market.name(),
+            market.cityName(),
             null,
             null,
             null,
@@ -30,11 +32,11 @@ public record MarketHealthScoreDto(
         );
     }
 
-    public static MarketHealthScoreDto forAuthenticated(MarketHealthScore entity) {
+    public static MarketHealthScoreDto forAuthenticated(MarketHealthScore entity, MarketRef market) {
         return new MarketHealthScoreDto(
-            entity.getMarket().getId(),
-            entity.getMarket().getName(),
-            entity.getMarket().getCity().getName(),
+            market.id(),
+            market.name(),
+            market.cityName(),
             entity.getScore(),
             entity.getDataFreshness(),
             entity.getPriceStability(),
@@ -43,4 +45,32 @@ public record MarketHealthScoreDto(
             entity.getComputedAt()
         );
     }
+
+    public static MarketHealthScoreDto forGuest(MarketHealthLatest latest, MarketRef market) {
+        return new MarketHealthScoreDto(
+            market.id(),
+            market.name(),
+            market.cityName(),
+            null,
+            null,
+            null,
+            null,
+            latest.getGrade(),
+            latest.getComputedAt()
+        );
+    }
+
+    public static MarketHealthScoreDto forAuthenticated(MarketHealthLatest latest, MarketRef market) {
+        return new MarketHealthScoreDto(
+            market.id(),
+            market.name(),
+            market.cityName(),
+            latest.getScore(),
+            latest.getDataFreshness(),
+            latest.getPriceStability(),
+            latest.getCoverage(),
+            latest.getGrade(),
+            latest.getComputedAt()
+        );
+    }
 }
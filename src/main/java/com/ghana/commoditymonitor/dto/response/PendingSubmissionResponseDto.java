@@ -22,5 +22,6 @@ public class PendingSubmissionResponseDto {
     private String status;
     private String submittedByUsername;
     private Long daysPending;
+    private BigDecimal outlierScore;
     private OffsetDateTime createdAt;
 }
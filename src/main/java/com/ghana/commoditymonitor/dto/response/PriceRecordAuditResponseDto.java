@@ -0,0 +1,21 @@
+package com.ghana.commoditymonitor.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+public class PriceRecordAuditResponseDto {
+    private Long id;
+    private Long priceRecordId;
+    private String action;
+    private String performedByUsername;
+    private BigDecimal oldPrice;
+    private BigDecimal newPrice;
+    private String note;
+    private OffsetDateTime performedAt;
+    private boolean persisted;
+}
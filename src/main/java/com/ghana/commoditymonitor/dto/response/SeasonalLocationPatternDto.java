@@ -0,0 +1,15 @@
+package com.ghana.commoditymonitor.dto.response;
+
+import com.ghana.commoditymonitor.enums.SeasonalScope;
+
+import java.util.List;
+
+public record SeasonalLocationPatternDto(
+    Long commodityId,
+    String commodityName,
+    SeasonalScope scope,
+    Long locationId,
+    String locationName,
+    List<SeasonalPatternDto> months,
+    SeasonalPatternDto bestMonthToBuy
+) {}
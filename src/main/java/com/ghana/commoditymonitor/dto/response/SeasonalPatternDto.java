@@ -11,6 +11,8 @@ public record SeasonalPatternDto(
     String monthName,
     BigDecimal avgPrice,
     BigDecimal seasonalIndex,
+    BigDecimal detrendedIndex,
+    BigDecimal seasonalConfidence,
     SeasonalOutlook interpretation,
     Integer sampleSize,
     Integer dataYearFrom,
@@ -1,5 +1,6 @@
 package com.ghana.commoditymonitor.entity;
 
+import com.ghana.commoditymonitor.service.ExportDataVersionListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -12,6 +13,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "cities")
+@EntityListeners(ExportDataVersionListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
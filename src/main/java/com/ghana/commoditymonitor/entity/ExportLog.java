@@ -1,5 +1,6 @@
 package com.ghana.commoditymonitor.entity;
 
+import com.ghana.commoditymonitor.enums.ExportJobStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -29,16 +30,60 @@ public class ExportLog {
     @Column(name = "filters", columnDefinition = "TEXT")
     private String filters;
 
+    /** SHA-256 of the canonical filters, matching a delta export to its predecessors. */
+    @Column(name = "filter_hash", length = 64)
+    private String filterHash;
+
+    /** When the export read its data; a delta export of the same filters starts from here. */
+    @Column(name = "watermark")
+    private OffsetDateTime watermark;
+
     @Column(name = "row_count", nullable = false)
     private Integer rowCount;
 
+    /** Bytes delivered (after compression); for asynchronous jobs, the size of the spooled artifact. */
     @Column(name = "file_size", nullable = false)
     private Long fileSize;
 
+    /** Uncompressed size of the export. */
+    @Column(name = "raw_size")
+    private Long rawSize;
+
+    /** HTTP content coding the export was sent with; null when sent uncompressed. */
+    @Column(name = "content_encoding", length = 10)
+    private String contentEncoding;
+
+    @Column(name = "cache_hit", nullable = false)
+    @Builder.Default
+    private boolean cacheHit = false;
+
     @Column(name = "ip_address", length = 45)
     private String ipAddress;
 
     @CreationTimestamp
     @Column(name = "exported_at", nullable = false, updatable = false)
     private OffsetDateTime exportedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private ExportJobStatus status = ExportJobStatus.COMPLETED;
+
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "artifact_path", length = 500)
+    private String artifactPath;
+
+    @Column(name = "expires_at")
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
 }
@@ -0,0 +1,42 @@
+package com.ghana.commoditymonitor.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * The newest {@link MarketHealthScore} of each market. Written only by the database trigger on
+ * {@code market_health_scores}.
+ */
+@Entity
+@Immutable
+@Table(name = "market_health_latest")
+@Getter
+@NoArgsConstructor
+public class MarketHealthLatest {
+
+    @Id
+    @Column(name = "market_id")
+    private Long marketId;
+
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal score;
+
+    @Column(name = "data_freshness", nullable = false, precision = 5, scale = 2)
+    private BigDecimal dataFreshness;
+
+    @Column(name = "price_stability", nullable = false, precision = 5, scale = 2)
+    private BigDecimal priceStability;
+
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal coverage;
+
+    @Column(nullable = false, length = 1)
+    private String grade;
+
+    @Column(name = "computed_at", nullable = false)
+    private OffsetDateTime computedAt;
+}
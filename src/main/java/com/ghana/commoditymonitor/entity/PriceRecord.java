@@ -1,6 +1,7 @@
 package com.ghana.commoditymonitor.entity;
 
 import com.ghana.commoditymonitor.enums.PriceRecordStatus;
+import com.ghana.commoditymonitor.service.ExportDataVersionListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -11,6 +12,7 @@ import java.time.OffsetDateTime;
 
 @Entity
 @Table(name = "price_records")
+@EntityListeners(ExportDataVersionListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
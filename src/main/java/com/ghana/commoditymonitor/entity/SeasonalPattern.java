@@ -30,6 +30,12 @@ public class SeasonalPattern {
     @Column(name = "seasonal_index", nullable = false, precision = 6, scale = 4)
     private BigDecimal seasonalIndex;
 
+    @Column(name = "detrended_index", precision = 6, scale = 4)
+    private BigDecimal detrendedIndex;
+
+    @Column(name = "seasonal_confidence", precision = 5, scale = 4)
+    private BigDecimal seasonalConfidence;
+
     @Column(name = "avg_price", nullable = false, precision = 12, scale = 2)
     private BigDecimal avgPrice;
 
@@ -0,0 +1,63 @@
+package com.ghana.commoditymonitor.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * HTTP content codings applied to streamed exports, in order of preference.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ContentCoding {
+    ZSTD("zstd"),
+    GZIP("gzip"),
+    IDENTITY("identity");
+
+    private final String token;
+
+    /**
+     * Picks the preferred coding the client accepts from an {@code Accept-Encoding} header,
+     * honouring q-values and {@code *}. Falls back to {@link #IDENTITY}.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+
+        Map<String, Double> weights = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (!coding.isEmpty()) {
+                weights.put(coding, q);
+            }
+        }
+
+        double wildcard = weights.getOrDefault("*", 0.0);
+        ContentCoding best = IDENTITY;
+        double bestWeight = 0;
+        for (ContentCoding coding : new ContentCoding[] {ZSTD, GZIP}) {
+            double weight = weights.getOrDefault(coding.token, wildcard);
+            if (weight > bestWeight) {
+                best = coding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ghana.commoditymonitor.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    EXPIRED
+}
@@ -1,6 +1,18 @@
 package com.ghana.commoditymonitor.enums;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
 public enum ExportType {
-    CSV,
-    EXCEL
+    CSV("csv", "text/csv; charset=UTF-8", true),
+    EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", false),
+    PARQUET("parquet", "application/vnd.apache.parquet", false),
+    NDJSON("ndjson", "application/x-ndjson", true);
+
+    private final String fileExtension;
+    private final String contentType;
+    /** False for formats that are already compressed internally. */
+    private final boolean compressible;
 }
@@ -0,0 +1,7 @@
+package com.ghana.commoditymonitor.enums;
+
+public enum HealthHistoryResolution {
+    DAILY,
+    WEEKLY,
+    MONTHLY
+}
@@ -0,0 +1,29 @@
+package com.ghana.commoditymonitor.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Baselines a delta export can be taken against.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum IncrementalSince {
+    /** The requesting user's previous completed export with the same filters. */
+    LAST_EXPORT("lastExport");
+
+    @JsonValue
+    private final String value;
+
+    @JsonCreator
+    public static IncrementalSince fromValue(String value) {
+        for (IncrementalSince since : values()) {
+            if (since.value.equalsIgnoreCase(value) || since.name().equalsIgnoreCase(value)) {
+                return since;
+            }
+        }
+        throw new IllegalArgumentException("Unknown incrementalSince value: " + value);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ghana.commoditymonitor.enums;
+
+/**
+ * Orderings supported by the pending review queue.
+ */
+public enum PendingQueueSort {
+    /** Oldest submission first. */
+    AGE,
+    /** Submission furthest from its commodity's recent approved mean first. */
+    OUTLIER
+}
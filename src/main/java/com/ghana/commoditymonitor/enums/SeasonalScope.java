@@ -0,0 +1,6 @@
+package com.ghana.commoditymonitor.enums;
+
+public enum SeasonalScope {
+    CITY,
+    MARKET
+}
@@ -1,6 +1,7 @@
 package com.ghana.commoditymonitor.repository;
 
 import com.ghana.commoditymonitor.entity.ExportLog;
+import com.ghana.commoditymonitor.enums.ExportJobStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,9 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ExportLogRepository extends JpaRepository<ExportLog, Long> {
@@ -19,6 +23,13 @@ public interface ExportLogRepository extends JpaRepository<ExportLog, Long> {
 
     Page<ExportLog> findAllByOrderByExportedAtDesc(Pageable pageable);
 
+    List<ExportLog> findByStatusInAndExportedAtBefore(Collection<ExportJobStatus> statuses, OffsetDateTime cutoff);
+
+    List<ExportLog> findByArtifactPathIsNotNullAndExpiresAtBefore(OffsetDateTime cutoff);
+
+    Optional<ExportLog> findFirstByUserIdAndFilterHashAndStatusInAndWatermarkIsNotNullOrderByWatermarkDesc(
+            Long userId, String filterHash, Collection<ExportJobStatus> statuses);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM ExportLog e WHERE e.exportedAt < :cutoffDate")
@@ -0,0 +1,157 @@
+package com.ghana.commoditymonitor.repository;
+
+import com.ghana.commoditymonitor.dto.projection.MarketHealthHistoryPoint;
+import com.ghana.commoditymonitor.enums.HealthHistoryResolution;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Tiered market health history: raw scores, then weekly and monthly roll-ups in
+ * {@code market_health_rollups}.
+ * <p>
+ * Each roll-up moves a whole tier boundary in one statement: the expired rows are deleted with
+ * {@code RETURNING}, grouped, and merged into the next tier. A period that expires over several
+ * nights is merged weighted by sample count, so its averages match a single roll-up.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class MarketHealthHistoryRepository {
+
+    private static final String MERGE_ON_CONFLICT = """
+        ON CONFLICT (market_id, resolution, period_start) DO UPDATE SET
+            avg_score = ROUND((market_health_rollups.avg_score * market_health_rollups.samples
+                               + EXCLUDED.avg_score * EXCLUDED.samples)
+                              / (market_health_rollups.samples + EXCLUDED.samples), 2),
+            min_score = LEAST(market_health_rollups.min_score, EXCLUDED.min_score),
+            max_score = GREATEST(market_health_rollups.max_score, EXCLUDED.max_score),
+            avg_data_freshness = ROUND((market_health_rollups.avg_data_freshness * market_health_rollups.samples
+                                        + EXCLUDED.avg_data_freshness * EXCLUDED.samples)
+                                       / (market_health_rollups.samples + EXCLUDED.samples), 2),
+            avg_price_stability = ROUND((market_health_rollups.avg_price_stability * market_health_rollups.samples
+                                         + EXCLUDED.avg_price_stability * EXCLUDED.samples)
+                                        / (market_health_rollups.samples + EXCLUDED.samples), 2),
+            avg_coverage = ROUND((market_health_rollups.avg_coverage * market_health_rollups.samples
+                                  + EXCLUDED.avg_coverage * EXCLUDED.samples)
+                                 / (market_health_rollups.samples + EXCLUDED.samples), 2),
+            samples = market_health_rollups.samples + EXCLUDED.samples
+        """;
+
+    private static final String ROLL_UP_SCORES_SQL = """
+        WITH expired AS (
+            DELETE FROM market_health_scores
+            WHERE computed_at < :cutoff
+            RETURNING market_id, computed_at, score, data_freshness, price_stability, coverage
+        )
+        INSERT INTO market_health_rollups (market_id, resolution, period_start, avg_score, min_score, max_score,
+                                           avg_data_freshness, avg_price_stability, avg_coverage, samples)
+        SELECT
+            market_id,
+            'WEEKLY',
+            date_trunc('week', computed_at)::DATE,
+            ROUND(AVG(score), 2),
+            MIN(score),
+            MAX(score),
+            ROUND(AVG(data_freshness), 2),
+            ROUND(AVG(price_stability), 2),
+            ROUND(AVG(coverage), 2),
+            COUNT(*)
+        FROM expired
+        GROUP BY market_id, date_trunc('week', computed_at)
+        """ + MERGE_ON_CONFLICT;
+
+    // A week spanning two months is counted in the month it starts in
+    private static final String ROLL_UP_WEEKS_SQL = """
+        WITH expired AS (
+            DELETE FROM market_health_rollups
+            WHERE resolution = 'WEEKLY' AND period_start < :cutoff
+            RETURNING market_id, period_start, avg_score, min_score, max_score,
+                      avg_data_freshness, avg_price_stability, avg_coverage, samples
+        )
+        INSERT INTO market_health_rollups (market_id, resolution, period_start, avg_score, min_score, max_score,
+                                           avg_data_freshness, avg_price_stability, avg_coverage, samples)
+        SELECT
+            market_id,
+            'MONTHLY',
+            date_trunc('month', period_start)::DATE,
+            ROUND(SUM(avg_score * samples) / SUM(samples), 2),
+            MIN(min_score),
+            MAX(max_score),
+            ROUND(SUM(avg_data_freshness * samples) / SUM(samples), 2),
+            ROUND(SUM(avg_price_stability * samples) / SUM(samples), 2),
+            ROUND(SUM(avg_coverage * samples) / SUM(samples), 2),
+            SUM(samples)
+        FROM expired
+        GROUP BY market_id, date_trunc('month', period_start)
+        """ + MERGE_ON_CONFLICT;
+
+    private static final String HISTORY_SQL = """
+        SELECT resolution, period_start, avg_score, min_score, max_score,
+               avg_data_freshness, avg_price_stability, avg_coverage, samples
+        FROM market_health_rollups
+        WHERE market_id = :marketId AND period_start >= :from
+        UNION ALL
+        SELECT
+            'DAILY',
+            computed_at::DATE,
+            ROUND(AVG(score), 2),
+            MIN(score),
+            MAX(score),
+            ROUND(AVG(data_freshness), 2),
+            ROUND(AVG(price_stability), 2),
+            ROUND(AVG(coverage), 2),
+            COUNT(*)
+        FROM market_health_scores
+        WHERE market_id = :marketId AND computed_at >= :from
+        GROUP BY computed_at::DATE
+        ORDER BY period_start, resolution
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Moves scores computed before {@code cutoff} into weekly roll-ups.
+     *
+     * @return the number of weekly roll-ups written or merged into
+     */
+    public int rollUpScores(OffsetDateTime cutoff) {
+        return jdbcTemplate.update(ROLL_UP_SCORES_SQL, new MapSqlParameterSource("cutoff", cutoff));
+    }
+
+    /**
+     * Moves weekly roll-ups of weeks starting before {@code cutoff} into monthly roll-ups.
+     *
+     * @return the number of monthly roll-ups written or merged into
+     */
+    public int rollUpWeeks(LocalDate cutoff) {
+        return jdbcTemplate.update(ROLL_UP_WEEKS_SQL, new MapSqlParameterSource("cutoff", cutoff));
+    }
+
+    /**
+     * A market's history from {@code from} on, oldest first, each period at the resolution it is
+     * stored at.
+     */
+    public List<MarketHealthHistoryPoint> findHistory(Long marketId, LocalDate from) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("marketId", marketId)
+            .addValue("from", from);
+
+        return jdbcTemplate.query(HISTORY_SQL, params,
+            (rs, rowNum) -> new MarketHealthHistoryPoint(
+                HealthHistoryResolution.valueOf(rs.getString("resolution")),
+                rs.getDate("period_start").toLocalDate(),
+                rs.getBigDecimal("avg_score"),
+                rs.getBigDecimal("min_score"),
+                rs.getBigDecimal("max_score"),
+                rs.getBigDecimal("avg_data_freshness"),
+                rs.getBigDecimal("avg_price_stability"),
+                rs.getBigDecimal("avg_coverage"),
+                rs.getInt("samples")));
+    }
+}
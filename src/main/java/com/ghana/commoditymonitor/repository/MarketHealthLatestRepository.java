@@ -0,0 +1,23 @@
+package com.ghana.commoditymonitor.repository;
+
+import com.ghana.commoditymonitor.entity.MarketHealthLatest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MarketHealthLatestRepository extends JpaRepository<MarketHealthLatest, Long> {
+
+    List<MarketHealthLatest> findAllByOrderByScoreDescMarketIdAsc(Pageable pageable);
+
+    List<MarketHealthLatest> findAllByOrderByScoreAscMarketIdAsc(Pageable pageable);
+
+    List<MarketHealthLatest> findByGradeInOrderByScoreDescMarketIdAsc(Collection<String> grades, Pageable pageable);
+
+    @Query("SELECT l.grade, COUNT(l) FROM MarketHealthLatest l GROUP BY l.grade")
+    List<Object[]> countByGrade();
+}
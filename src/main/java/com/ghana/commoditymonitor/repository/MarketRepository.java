@@ -23,4 +23,7 @@ public interface MarketRepository extends JpaRepository<Market, Long> {
     
     @org.springframework.data.jpa.repository.Query("SELECT m.id FROM Market m")
     List<Long> findAllIds();
+
+    @org.springframework.data.jpa.repository.Query("SELECT m FROM Market m JOIN FETCH m.city")
+    List<Market> findAllWithCity();
 }
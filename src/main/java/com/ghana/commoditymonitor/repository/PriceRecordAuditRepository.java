@@ -1,7 +1,11 @@
 package com.ghana.commoditymonitor.repository;
 
+import com.ghana.commoditymonitor.dto.projection.PriceRecordAuditView;
 import com.ghana.commoditymonitor.entity.PriceRecordAudit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +14,18 @@ import java.util.List;
 public interface PriceRecordAuditRepository extends JpaRepository<PriceRecordAudit, Long> {
     
     List<PriceRecordAudit> findByPriceRecordIdOrderByPerformedAtDesc(Long priceRecordId);
+
+    @Modifying
+    @Query("DELETE FROM PriceRecordAudit a WHERE a.priceRecord.id = :priceRecordId")
+    int deleteByPriceRecordId(@Param("priceRecordId") Long priceRecordId);
+
+    @Query("""
+        SELECT new com.ghana.commoditymonitor.dto.projection.PriceRecordAuditView(
+            a.id, a.priceRecord.id, a.action, u.username, a.oldPrice, a.newPrice, a.note, a.performedAt)
+        FROM PriceRecordAudit a
+        LEFT JOIN a.performedBy u
+        WHERE a.priceRecord.id = :priceRecordId
+        ORDER BY a.performedAt DESC
+        """)
+    List<PriceRecordAuditView> findViewsByPriceRecordId(@Param("priceRecordId") Long priceRecordId);
 }
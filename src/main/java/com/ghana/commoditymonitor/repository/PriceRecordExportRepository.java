@@ -0,0 +1,151 @@
+package com.ghana.commoditymonitor.repository;
+
+import com.ghana.commoditymonitor.dto.projection.PriceRecordExportView;
+import com.ghana.commoditymonitor.dto.request.ExportRequestDto;
+import com.ghana.commoditymonitor.enums.PriceRecordStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Forward-only cursor over approved price records in export row shape.
+ * <p>
+ * Rows are handed to the caller one at a time while the result set is still open, so an export
+ * holds only the current fetch window in memory. The PostgreSQL driver only honours the fetch
+ * size with autocommit off, hence the read-only transaction around each scan.
+ * </p>
+ */
+@Repository
+public class PriceRecordExportRepository {
+
+    private static final String SELECT_SQL = """
+        SELECT pr.id, c.name AS commodity_name, c.category, c.unit, m.name AS market_name,
+               ci.name AS city_name, pr.price, pr.recorded_date, pr.source, u.username, pr.status
+        FROM price_records pr
+        JOIN commodities c ON c.id = pr.commodity_id
+        JOIN markets m ON m.id = pr.market_id
+        JOIN cities ci ON ci.id = m.city_id
+        LEFT JOIN users u ON u.id = pr.submitted_by
+        WHERE pr.status = 'APPROVED'
+        """;
+
+    private static final String MATCH_SQL = """
+        SELECT 1
+        FROM price_records pr
+        JOIN markets m ON m.id = pr.market_id
+        WHERE pr.status = 'APPROVED'
+        """;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PriceRecordExportRepository(DataSource dataSource,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.export.fetch-size:2000}") int fetchSize) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Streams the approved records matching {@code filter}, newest first, into {@code sink}.
+     * Exceptions thrown by the sink abort the scan and propagate.
+     */
+    public void streamApproved(ExportRequestDto filter, Consumer<PriceRecordExportView> sink) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        appendFilters(sql, params, filter);
+        sql.append(" ORDER BY pr.recorded_date DESC, c.name ASC");
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(), params,
+            (RowCallbackHandler) rs -> sink.accept(new PriceRecordExportView(
+                rs.getLong("id"),
+                rs.getString("commodity_name"),
+                rs.getString("category"),
+                rs.getString("unit"),
+                rs.getString("market_name"),
+                rs.getString("city_name"),
+                rs.getBigDecimal("price"),
+                rs.getObject("recorded_date", LocalDate.class),
+                rs.getString("source"),
+                rs.getString("username"),
+                PriceRecordStatus.valueOf(rs.getString("status"))
+            ))));
+    }
+
+    /**
+     * The planner's estimate of how many approved records match {@code filter}. Costs one
+     * EXPLAIN against table statistics, not a scan; the figure can be off by a small factor.
+     */
+    public long estimateApproved(ExportRequestDto filter) {
+        StringBuilder sql = new StringBuilder("EXPLAIN ").append(MATCH_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        appendFilters(sql, params, filter);
+
+        // The first plan line is the top node, whose row estimate is the whole result
+        List<String> plan = jdbcTemplate.queryForList(sql.toString(), params, String.class);
+        Matcher rows = PLAN_ROWS.matcher(plan.get(0));
+        if (!rows.find()) {
+            throw new IllegalStateException("No row estimate in plan: " + plan.get(0));
+        }
+        return Long.parseLong(rows.group(1));
+    }
+
+    /**
+     * Exact number of approved records matching {@code filter}, counting no further than
+     * {@code limit}; a result equal to {@code limit} means at least that many.
+     */
+    public long countApproved(ExportRequestDto filter, long limit) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM (").append(MATCH_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        appendFilters(sql, params, filter);
+        sql.append(" LIMIT :limit) matched");
+        params.addValue("limit", limit);
+
+        Long count = jdbcTemplate.queryForObject(sql.toString(), params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static void appendFilters(StringBuilder sql, MapSqlParameterSource params, ExportRequestDto filter) {
+        if (filter.commodityIds() != null && !filter.commodityIds().isEmpty()) {
+            sql.append(" AND pr.commodity_id IN (:commodityIds)");
+            params.addValue("commodityIds", filter.commodityIds());
+        }
+        if (filter.marketIds() != null && !filter.marketIds().isEmpty()) {
+            sql.append(" AND pr.market_id IN (:marketIds)");
+            params.addValue("marketIds", filter.marketIds());
+        }
+        if (filter.cityIds() != null && !filter.cityIds().isEmpty()) {
+            sql.append(" AND m.city_id IN (:cityIds)");
+            params.addValue("cityIds", filter.cityIds());
+        }
+        if (filter.fromDate() != null) {
+            sql.append(" AND pr.recorded_date >= :fromDate");
+            params.addValue("fromDate", filter.fromDate());
+        }
+        if (filter.toDate() != null) {
+            sql.append(" AND pr.recorded_date <= :toDate");
+            params.addValue("toDate", filter.toDate());
+        }
+        if (filter.changedSince() != null) {
+            sql.append(" AND (pr.created_at > :changedSince OR pr.reviewed_at > :changedSince)");
+            params.addValue("changedSince", filter.changedSince());
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.ghana.commoditymonitor.repository;
 
+import com.ghana.commoditymonitor.dto.projection.PendingSubmissionView;
+import com.ghana.commoditymonitor.dto.projection.PriceRecordView;
 import com.ghana.commoditymonitor.entity.PriceRecord;
 import com.ghana.commoditymonitor.enums.PriceRecordStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,27 +13,39 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PriceRecordRepository extends JpaRepository<PriceRecord, Long> {
 
-    List<PriceRecord> findByCommodityId(Long commodityId);
+    String VIEW_SELECT = """
+        SELECT new com.ghana.commoditymonitor.dto.projection.PriceRecordView(
+            pr.id, c.id, c.name, m.id, m.name, ci.name, pr.price, pr.recordedDate, pr.source,
+            pr.status, sb.username, rb.username, pr.reviewedAt, pr.rejectionReason, pr.createdAt)
+        FROM PriceRecord pr
+        JOIN pr.commodity c
+        JOIN pr.market m
+        JOIN m.city ci
+        LEFT JOIN pr.submittedBy sb
+        LEFT JOIN pr.reviewedBy rb
+        """;
 
-    List<PriceRecord> findByMarketId(Long marketId);
+    String PENDING_VIEW_SELECT = """
+        SELECT new com.ghana.commoditymonitor.dto.projection.PendingSubmissionView(
+            pr.id, c.id, c.name, m.id, m.name, ci.id, ci.name, pr.price, pr.recordedDate, pr.source,
+            pr.status, sb.id, sb.username, pr.createdAt)
+        FROM PriceRecord pr
+        JOIN pr.commodity c
+        JOIN pr.market m
+        JOIN m.city ci
+        LEFT JOIN pr.submittedBy sb
+        """;
 
     List<PriceRecord> findByCommodityIdAndRecordedDateBetween(Long commodityId, LocalDate from, LocalDate to);
 
     List<PriceRecord> findByMarketIdAndCommodityId(Long marketId, Long commodityId);
 
-    List<PriceRecord> findByStatus(PriceRecordStatus status);
-
-    List<PriceRecord> findBySubmittedByIdAndStatus(Long userId, PriceRecordStatus status);
-
-    List<PriceRecord> findByStatusAndCreatedAtBefore(PriceRecordStatus status, java.time.OffsetDateTime threshold);
-
     long countByStatus(PriceRecordStatus status);
-    
-    long countByCommodityIdAndStatus(Long commodityId, PriceRecordStatus status);
 
     @Query("SELECT pr FROM PriceRecord pr " +
            "JOIN FETCH pr.market m " +
@@ -37,4 +53,25 @@ public interface PriceRecordRepository extends JpaRepository<PriceRecord, Long>
            "WHERE pr.commodity.id = :commodityId " +
            "ORDER BY pr.recordedDate DESC")
     List<PriceRecord> findAllByCommodityWithMarketAndCity(@Param("commodityId") Long commodityId);
+
+    @Query(VIEW_SELECT + "WHERE pr.id = :id")
+    Optional<PriceRecordView> findViewById(@Param("id") Long id);
+
+    @Query(value = VIEW_SELECT,
+           countQuery = "SELECT COUNT(pr) FROM PriceRecord pr")
+    Page<PriceRecordView> findAllViews(Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE c.id = :commodityId")
+    List<PriceRecordView> findViewsByCommodityId(@Param("commodityId") Long commodityId);
+
+    @Query(VIEW_SELECT + "WHERE m.id = :marketId")
+    List<PriceRecordView> findViewsByMarketId(@Param("marketId") Long marketId);
+
+    @Query(VIEW_SELECT + "WHERE sb.id = :userId AND pr.status = :status")
+    List<PriceRecordView> findViewsBySubmittedByIdAndStatus(@Param("userId") Long userId,
+                                                            @Param("status") PriceRecordStatus status);
+
+    // Literal status so the planner can match idx_price_records_pending_created_at
+    @Query(PENDING_VIEW_SELECT + "WHERE pr.status = com.ghana.commoditymonitor.enums.PriceRecordStatus.PENDING ORDER BY pr.createdAt")
+    List<PendingSubmissionView> findAllPendingViews();
 }
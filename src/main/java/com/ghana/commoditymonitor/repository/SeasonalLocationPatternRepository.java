@@ -0,0 +1,152 @@
+package com.ghana.commoditymonitor.repository;
+
+import com.ghana.commoditymonitor.dto.projection.SeasonalLocationSeries;
+import com.ghana.commoditymonitor.enums.SeasonalScope;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Seasonal series per commodity and city or market, stored one row per series.
+ * <p>
+ * A recomputation groups the approved prices of a batch of commodities by market and calendar
+ * month in one pass; city series are rolled up from the market groups rather than rescanned.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class SeasonalLocationPatternRepository {
+
+    private static final String UPSERT_SQL = """
+        WITH market_months AS (
+            SELECT
+                pr.commodity_id,
+                pr.market_id,
+                m.city_id,
+                EXTRACT(MONTH FROM pr.recorded_date)::INT AS month_of_year,
+                SUM(pr.price) AS month_total,
+                COUNT(*) AS sample_size,
+                MIN(EXTRACT(YEAR FROM pr.recorded_date))::SMALLINT AS year_from,
+                MAX(EXTRACT(YEAR FROM pr.recorded_date))::SMALLINT AS year_to
+            FROM price_records pr
+            JOIN markets m ON m.id = pr.market_id
+            WHERE pr.status = 'APPROVED'
+              AND pr.commodity_id IN (:commodityIds)
+            GROUP BY pr.commodity_id, pr.market_id, m.city_id, month_of_year
+        ),
+        series_months AS (
+            SELECT commodity_id, 'MARKET' AS scope, market_id AS location_id, month_of_year,
+                   month_total, sample_size, year_from, year_to
+            FROM market_months
+            UNION ALL
+            SELECT commodity_id, 'CITY', city_id, month_of_year,
+                   SUM(month_total), SUM(sample_size), MIN(year_from), MAX(year_to)
+            FROM market_months
+            GROUP BY commodity_id, city_id, month_of_year
+        ),
+        series AS (
+            SELECT commodity_id, scope, location_id,
+                   SUM(month_total) / SUM(sample_size) AS grand_avg,
+                   MIN(year_from) AS year_from,
+                   MAX(year_to) AS year_to
+            FROM series_months
+            GROUP BY commodity_id, scope, location_id
+            HAVING SUM(sample_size) >= :minRecords
+        ),
+        upserted AS (
+            INSERT INTO seasonal_location_patterns (commodity_id, scope, location_id, seasonal_indices,
+                                                    avg_prices, sample_sizes, data_year_from, data_year_to, computed_at)
+            SELECT
+                s.commodity_id,
+                s.scope,
+                s.location_id,
+                array_agg(ROUND(sm.month_total / sm.sample_size / NULLIF(s.grand_avg, 0), 4) ORDER BY mo.month_of_year),
+                array_agg(ROUND(sm.month_total / sm.sample_size, 2) ORDER BY mo.month_of_year),
+                array_agg(sm.sample_size::INT ORDER BY mo.month_of_year),
+                s.year_from,
+                s.year_to,
+                NOW()
+            FROM series s
+            CROSS JOIN generate_series(1, 12) AS mo(month_of_year)
+            LEFT JOIN series_months sm
+                   ON sm.commodity_id = s.commodity_id
+                  AND sm.scope = s.scope
+                  AND sm.location_id = s.location_id
+                  AND sm.month_of_year = mo.month_of_year
+            GROUP BY s.commodity_id, s.scope, s.location_id, s.year_from, s.year_to
+            ON CONFLICT (commodity_id, scope, location_id) DO UPDATE SET
+                seasonal_indices = EXCLUDED.seasonal_indices,
+                avg_prices = EXCLUDED.avg_prices,
+                sample_sizes = EXCLUDED.sample_sizes,
+                data_year_from = EXCLUDED.data_year_from,
+                data_year_to = EXCLUDED.data_year_to,
+                computed_at = EXCLUDED.computed_at
+            RETURNING commodity_id
+        )
+        SELECT commodity_id, COUNT(*) AS series FROM upserted GROUP BY commodity_id
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Recomputes every city and market series of the given commodities that has at least
+     * {@code minRecords} approved prices, and removes their series that no longer qualify. Must run
+     * inside a transaction, which dates the rows written.
+     *
+     * @return the number of series written, by commodity
+     */
+    public Map<Long, Integer> recompute(Collection<Long> commodityIds, int minRecords) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("commodityIds", commodityIds)
+            .addValue("minRecords", minRecords);
+
+        List<Map<String, Object>> written = jdbcTemplate.queryForList(UPSERT_SQL, params);
+        jdbcTemplate.update(
+            "DELETE FROM seasonal_location_patterns WHERE commodity_id IN (:commodityIds) AND computed_at < NOW()",
+            params);
+
+        return written.stream().collect(Collectors.toMap(
+            row -> ((Number) row.get("commodity_id")).longValue(),
+            row -> ((Number) row.get("series")).intValue()));
+    }
+
+    public Optional<SeasonalLocationSeries> find(Long commodityId, SeasonalScope scope, Long locationId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("commodityId", commodityId)
+            .addValue("scope", scope.name())
+            .addValue("locationId", locationId);
+
+        return jdbcTemplate.query("""
+                SELECT seasonal_indices, avg_prices, sample_sizes, data_year_from, data_year_to
+                FROM seasonal_location_patterns
+                WHERE commodity_id = :commodityId AND scope = :scope AND location_id = :locationId
+                """, params,
+            (rs, rowNum) -> new SeasonalLocationSeries(
+                commodityId,
+                scope,
+                locationId,
+                toList(rs.getArray("seasonal_indices"), BigDecimal[].class),
+                toList(rs.getArray("avg_prices"), BigDecimal[].class),
+                toList(rs.getArray("sample_sizes"), Integer[].class),
+                rs.getInt("data_year_from"),
+                rs.getInt("data_year_to")))
+            .stream()
+            .findFirst();
+    }
+
+    private static <T> List<T> toList(Array array, Class<T[]> type) throws SQLException {
+        // Arrays.asList rather than List.of: months without prices are null
+        return Arrays.asList(type.cast(array.getArray()));
+    }
+}
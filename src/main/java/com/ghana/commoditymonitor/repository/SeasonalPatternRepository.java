@@ -12,6 +12,4 @@ public interface SeasonalPatternRepository extends JpaRepository<SeasonalPattern
     List<SeasonalPattern> findByCommodityIdOrderByMonthOfYear(Long commodityId);
 
     List<SeasonalPattern> findByCommodityId(Long commodityId);
-
-    void deleteAllByCommodityId(Long commodityId);
 }
@@ -1,13 +1,16 @@
 package com.ghana.commoditymonitor.scheduler;
 
-import com.ghana.commoditymonitor.entity.PriceRecord;
-import com.ghana.commoditymonitor.enums.PriceRecordStatus;
+import com.ghana.commoditymonitor.dto.projection.PendingSubmissionView;
 import com.ghana.commoditymonitor.repository.ExportLogRepository;
-import com.ghana.commoditymonitor.repository.MarketHealthScoreRepository;
-import com.ghana.commoditymonitor.repository.PriceRecordRepository;
+import com.ghana.commoditymonitor.service.ExportJobService;
+import com.ghana.commoditymonitor.service.MarketHealthHistoryService;
 import com.ghana.commoditymonitor.service.MarketHealthScoreService;
+import com.ghana.commoditymonitor.service.MarketHealthTracker;
+import com.ghana.commoditymonitor.service.PartitionMaintenanceService;
 import com.ghana.commoditymonitor.service.PasswordResetService;
+import com.ghana.commoditymonitor.service.PendingReviewQueue;
 import com.ghana.commoditymonitor.service.SeasonalPatternService;
+import com.ghana.commoditymonitor.service.SeasonalRecomputationRunner;
 import com.ghana.commoditymonitor.service.EsokoScraperService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,12 +28,16 @@ import java.util.List;
 public class CommodityScheduler {
 
     private final MarketHealthScoreService marketHealthScoreService;
+    private final MarketHealthTracker marketHealthTracker;
+    private final MarketHealthHistoryService marketHealthHistoryService;
     private final PasswordResetService passwordResetService;
     private final SeasonalPatternService seasonalPatternService;
+    private final SeasonalRecomputationRunner seasonalRecomputationRunner;
     private final EsokoScraperService esokoScraperService;
-    private final MarketHealthScoreRepository marketHealthScoreRepository;
-    private final PriceRecordRepository priceRecordRepository;
+    private final PendingReviewQueue pendingReviewQueue;
+    private final PartitionMaintenanceService partitionMaintenanceService;
     private final ExportLogRepository exportLogRepository;
+    private final ExportJobService exportJobService;
     private final CacheManager cacheManager;
 
     @Scheduled(cron = "0 0 2 * * *")
@@ -39,32 +46,47 @@ public class CommodityScheduler {
         try {
             long startTime = System.currentTimeMillis();
 
-            List<com.ghana.commoditymonitor.entity.MarketHealthScore> scores = 
-                    marketHealthScoreService.computeAllMarketScores();
-            
+            int scored = marketHealthScoreService.computeAllMarketScores();
+
             long elapsed = System.currentTimeMillis() - startTime;
-            log.info("Market health scores refreshed for {} markets in {}ms", scores.size(), elapsed);
+            log.info("Market health scores refreshed for {} markets in {}ms", scored, elapsed);
         } catch (Exception e) {
             log.error("Failed to refresh market health scores", e);
         }
 
         try {
-            OffsetDateTime cutoffDate = OffsetDateTime.now().minusDays(90);
-            marketHealthScoreRepository.deleteByComputedAtBefore(cutoffDate);
-            log.debug("Deleted market health scores older than 90 days");
+            marketHealthTracker.rebuild();
         } catch (Exception e) {
-            log.error("Failed to cleanup old market health scores", e);
+            log.error("Failed to rebuild market health state", e);
+        }
+
+        try {
+            marketHealthHistoryService.downsample();
+        } catch (Exception e) {
+            log.error("Failed to downsample old market health scores", e);
         }
     }
 
-    @Scheduled(cron = "0 0 3 1 * *")
+    @Scheduled(cron = "0 0 3 * * *")
     public void refreshSeasonalPatterns() {
-        log.info("Starting scheduled seasonal pattern recomputation");
+        log.info("Starting scheduled seasonal pattern refresh");
+        try {
+            int refreshed = seasonalPatternService.refreshQueuedPatterns();
+            log.info("Seasonal patterns refreshed for {} changed commodities", refreshed);
+        } catch (Exception e) {
+            log.error("Failed to refresh seasonal patterns", e);
+        }
+    }
+
+    @Scheduled(cron = "0 0 2 * * *")
+    public void refreshLocationSeasonalPatterns() {
+        log.info("Starting scheduled city and market seasonal pattern recomputation");
         try {
-            seasonalPatternService.computeAllPatterns();
-            log.info("Seasonal patterns recomputed for all commodities");
+            SeasonalRecomputationRunner.RunSummary summary = seasonalRecomputationRunner.recomputeAllLocations();
+            log.info("Location seasonal patterns recomputed for {} commodities in {}ms",
+                    summary.computed(), summary.durationMs());
         } catch (Exception e) {
-            log.error("Failed to recompute seasonal patterns", e);
+            log.error("Failed to recompute location seasonal patterns", e);
         }
     }
 
@@ -72,18 +94,19 @@ public class CommodityScheduler {
     public void checkPendingSlaBreaches() {
         log.debug("Checking for pending price record SLA breaches");
         
-        OffsetDateTime slaThreshold = OffsetDateTime.now().minusHours(24);
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime slaThreshold = now.minusHours(24);
         
-        List<PriceRecord> pendingRecords = priceRecordRepository
-                .findByStatusAndCreatedAtBefore(PriceRecordStatus.PENDING, slaThreshold);
+        List<PendingReviewQueue.Entry> pendingRecords = pendingReviewQueue.olderThan(slaThreshold);
 
-        for (PriceRecord record : pendingRecords) {
-            long hoursPending = Duration.between(record.getCreatedAt(), OffsetDateTime.now()).toHours();
-            String submitter = record.getSubmittedBy() != null ? 
-                    record.getSubmittedBy().getUsername() : "unknown";
+        for (PendingReviewQueue.Entry entry : pendingRecords) {
+            PendingSubmissionView record = entry.view();
+            long hoursPending = Duration.between(record.createdAt(), now).toHours();
+            String submitter = record.submittedByUsername() != null ? 
+                    record.submittedByUsername() : "unknown";
             
             log.warn("SLA BREACH: Price record ID {} submitted by {} has been PENDING for {} hours",
-                    record.getId(), submitter, hoursPending);
+                    record.id(), submitter, hoursPending);
         }
 
         if (!pendingRecords.isEmpty()) {
@@ -91,6 +114,26 @@ public class CommodityScheduler {
         }
     }
 
+    @Scheduled(cron = "0 0 1 * * *")
+    public void ensurePriceRecordPartitions() {
+        log.info("Ensuring upcoming price_records partitions exist");
+        try {
+            partitionMaintenanceService.ensureFuturePartitions();
+        } catch (Exception e) {
+            log.error("Failed to create upcoming price_records partitions", e);
+        }
+    }
+
+    @Scheduled(cron = "0 15 1 * * *")
+    public void resyncPendingReviewQueue() {
+        log.info("Rebuilding pending review queue from the database");
+        try {
+            pendingReviewQueue.rebuild();
+        } catch (Exception e) {
+            log.error("Failed to rebuild pending review queue", e);
+        }
+    }
+
     @Scheduled(fixedRate = 900000)
     public void evictDashboardCache() {
         log.debug("Evicting dashboardSummary cache");
@@ -113,6 +156,18 @@ public class CommodityScheduler {
         log.info("Cleaned up {} old export log entries", deletedCount);
     }
 
+    @Scheduled(cron = "0 */15 * * * *")
+    public void purgeExpiredExportArtifacts() {
+        try {
+            int purged = exportJobService.purgeExpiredArtifacts();
+            if (purged > 0) {
+                log.info("Purged {} expired export artifacts", purged);
+            }
+        } catch (Exception e) {
+            log.error("Export artifact purge failed", e);
+        }
+    }
+
     @Scheduled(cron = "0 30 4 * * *")
     public void cleanupExpiredResetTokens() {
         log.info("Starting nightly cleanup of expired password reset tokens");
@@ -3,8 +3,6 @@ package com.ghana.commoditymonitor.service;
 import com.ghana.commoditymonitor.dto.response.*;
 import com.ghana.commoditymonitor.dto.response.analytics.*;
 import com.ghana.commoditymonitor.enums.Direction;
-import com.ghana.commoditymonitor.exception.ResourceNotFoundException;
-import com.ghana.commoditymonitor.repository.CommodityRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
@@ -28,7 +26,7 @@ import java.util.*;
 public class AnalyticsService {
 
     private final EntityManager entityManager;
-    private final CommodityRepository commodityRepository;
+    private final ReferenceDataCatalog referenceDataCatalog;
 
     @SuppressWarnings("unchecked")
     public List<MonthlyTrendDto> getMonthlyPriceTrend(Long commodityId, int months) {
@@ -40,15 +38,15 @@ public class AnalyticsService {
                 FROM price_records pr
                 JOIN commodities co ON pr.commodity_id = co.id
                 WHERE pr.commodity_id = :id 
-                  AND pr.recorded_date >= NOW() - CAST(:months || ' months' AS INTERVAL)
+                  AND pr.recorded_date >= :since
                   AND pr.status = 'APPROVED'
                 GROUP BY pr.commodity_id, co.name, month
                 ORDER BY month ASC
                 """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusMonths(months));
         query.setParameter("id", commodityId);
-        query.setParameter("months", months);
 
         List<Object[]> results = query.getResultList();
 
@@ -150,17 +148,21 @@ public class AnalyticsService {
                     FROM price_records
                     WHERE commodity_id = :id
                       AND status = 'APPROVED'
+                      AND recorded_date >= :previousMonthStart
                     GROUP BY month
                 )
                 SELECT 
-                    (SELECT avg_price FROM monthly_avgs WHERE month = DATE_TRUNC('month', NOW())) as current_avg,
-                    (SELECT avg_price FROM monthly_avgs WHERE month = DATE_TRUNC('month', NOW() - INTERVAL '1 month')) as last_avg,
+                    (SELECT avg_price FROM monthly_avgs WHERE month = :currentMonthStart) as current_avg,
+                    (SELECT avg_price FROM monthly_avgs WHERE month = :previousMonthStart) as last_avg,
                     co.name
                 FROM commodities co WHERE co.id = :id
                 """;
 
+        LocalDate currentMonthStart = LocalDate.now().withDayOfMonth(1);
         Query query = entityManager.createNativeQuery(sql);
         query.setParameter("id", commodityId);
+        query.setParameter("currentMonthStart", currentMonthStart);
+        query.setParameter("previousMonthStart", currentMonthStart.minusMonths(1));
 
         Object[] row = (Object[]) query.getSingleResult();
         if (row[0] == null || row[1] == null) {
@@ -209,7 +211,7 @@ public class AnalyticsService {
         double sum = results.stream().mapToDouble(Number::doubleValue).sum();
         BigDecimal forecast = BigDecimal.valueOf(sum / 3).setScale(2, RoundingMode.HALF_UP);
 
-        String name = commodityRepository.findById(commodityId).get().getName();
+        String name = referenceDataCatalog.getCommodity(commodityId).name();
 
         return Optional.of(new MovingAverageDto(
                 commodityId,
@@ -248,10 +250,11 @@ public class AnalyticsService {
                        (SELECT COUNT(*) FROM markets), 0) * 100
             FROM price_records pr
             WHERE pr.status = 'APPROVED'
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL '30 days'
+              AND pr.recorded_date >= :since
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(30));
         Object result = query.getSingleResult();
 
         return result != null ? ((Number) result).doubleValue() : 0.0;
@@ -422,7 +425,6 @@ public class AnalyticsService {
     }
 
     private void validateCommodity(Long commodityId) {
-        commodityRepository.findById(commodityId)
-                .orElseThrow(() -> new ResourceNotFoundException("Commodity", "id", commodityId));
+        referenceDataCatalog.getCommodity(commodityId);
     }
 }
@@ -0,0 +1,431 @@
+package com.ghana.commoditymonitor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ghana.commoditymonitor.dto.projection.AuditEvent;
+import com.ghana.commoditymonitor.dto.projection.PriceRecordAuditView;
+import com.ghana.commoditymonitor.repository.PriceRecordAuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.ghana.commoditymonitor.util.TransactionHooks.afterCommit;
+
+/**
+ * Write-behind appender for {@code price_record_audits}.
+ * <p>
+ * Events are queued once the request transaction commits and a single background writer inserts
+ * them in JDBC batches, so the write path no longer pays an extra round trip per audit row.
+ * Anything still queued at shutdown that cannot be flushed is appended to a journal file, which is
+ * replayed on the next startup. Readers use {@link #history(Long)} to see persisted rows and the
+ * unflushed tail as one consistent snapshot.
+ * </p>
+ * <p>
+ * A batch that fails because the database is unreachable or the error is transient stays in flight
+ * and is retried with capped backoff for as long as it takes. One that keeps failing otherwise is
+ * retried one event at a time after {@code app.audit.max-attempts}, and the events that are rejected
+ * on their own are appended to a dead-letter file and counted under
+ * {@code audit.events.dead_lettered}, so one bad event cannot stall the queue. The dead-letter file
+ * is replayed on startup, and whatever is rejected again stays in it.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditTrailAppender {
+
+    // EXISTS guard: a record deleted before its audit rows were flushed cascades them away, as before
+    private static final String INSERT_SQL = """
+        INSERT INTO price_record_audits (price_record_id, action, performed_by, old_price, new_price, note, performed_at)
+        SELECT ?, ?, ?, ?, ?, ?, ?
+        WHERE EXISTS (SELECT 1 FROM price_records WHERE id = ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PriceRecordAuditRepository auditRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.audit.journal-file:data/audit-journal.ndjson}")
+    private Path journalFile;
+
+    @Value("${app.audit.dead-letter-file:data/audit-dead-letter.ndjson}")
+    private Path deadLetterFile;
+
+    private final BlockingQueue<AuditEvent> queue = new LinkedBlockingQueue<>();
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private volatile List<AuditEvent> inFlight = List.of();
+    private volatile boolean running;
+    private volatile Thread writer;
+    private Counter deadLettered;
+
+    /**
+     * Persisted rows (newest first) and events that are committed but not yet flushed (oldest first).
+     */
+    public record History(List<PriceRecordAuditView> persisted, List<AuditEvent> unflushed) {}
+
+    @PostConstruct
+    void start() {
+        deadLettered = Counter.builder("audit.events.dead_lettered")
+                .description("Audit events that could not be inserted and were written to the dead-letter file")
+                .register(meterRegistry);
+        replayJournal();
+        replayDeadLetters();
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues {@code event} once the current transaction commits; a rollback discards it.
+     */
+    public void append(AuditEvent event) {
+        afterCommit(() -> {
+            queue.add(event);
+            Thread current = writer;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        });
+    }
+
+    public History history(Long priceRecordId) {
+        // Shared lock: a batch cannot move from the tail into the table while we read both
+        flushLock.readLock().lock();
+        try {
+            List<PriceRecordAuditView> persisted = auditRepository.findViewsByPriceRecordId(priceRecordId);
+            List<AuditEvent> unflushed = new ArrayList<>();
+            for (AuditEvent event : inFlight) {
+                if (event.priceRecordId().equals(priceRecordId)) {
+                    unflushed.add(event);
+                }
+            }
+            for (AuditEvent event : queue) {
+                if (event.priceRecordId().equals(priceRecordId)) {
+                    unflushed.add(event);
+                }
+            }
+            return new History(persisted, unflushed);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public int backlog() {
+        return queue.size() + inFlight.size();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<AuditEvent> remaining = new ArrayList<>(inFlight);
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        try {
+            flush(remaining);
+            log.info("Flushed {} audit events on shutdown", remaining.size());
+        } catch (RuntimeException e) {
+            log.error("Could not flush {} audit events on shutdown, writing them to {}", remaining.size(), journalFile, e);
+            writeNdjson(journalFile, remaining);
+        }
+    }
+
+    private void runWriter() {
+        long retryDelayMs = flushIntervalMs;
+        int attempts = 0;
+        while (running) {
+            try {
+                if (inFlight.isEmpty() && !takeBatch()) {
+                    // Woken early by append(); stop() interrupts
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    continue;
+                }
+                flush(inFlight);
+                retryDelayMs = flushIntervalMs;
+                attempts = 0;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) && ++attempts >= maxAttempts) {
+                    log.error("Failed to flush {} audit events after {} attempts, flushing them one by one",
+                            inFlight.size(), attempts, e);
+                    attempts = 0;
+                    if (flushIndividually()) {
+                        retryDelayMs = flushIntervalMs;
+                        continue;
+                    }
+                }
+                // The batch, or what is left of it, stays in flight and is retried
+                log.error("Failed to flush {} audit events, retrying in {}ms", inFlight.size(), retryDelayMs, e);
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                retryDelayMs = Math.min(retryDelayMs * 2, TimeUnit.MINUTES.toMillis(1));
+            }
+        }
+    }
+
+    /**
+     * Moves the next batch from the queue into {@link #inFlight} in one step under the flush lock,
+     * so {@link #history} never catches events in neither place.
+     *
+     * @return whether there was anything to take
+     */
+    private boolean takeBatch() {
+        flushLock.writeLock().lock();
+        try {
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            queue.drainTo(batch, batchSize);
+            inFlight = List.copyOf(batch);
+            return !batch.isEmpty();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Errors worth waiting out: the database is unreachable, failing over or briefly overloaded.
+     * Anything else, such as a constraint violation, fails the same way on every attempt.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        flushLock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(),
+                    (ps, event) -> {
+                        ps.setLong(1, event.priceRecordId());
+                        ps.setString(2, event.action());
+                        if (event.performedById() != null) {
+                            ps.setLong(3, event.performedById());
+                        } else {
+                            ps.setNull(3, Types.BIGINT);
+                        }
+                        ps.setBigDecimal(4, event.oldPrice());
+                        ps.setBigDecimal(5, event.newPrice());
+                        ps.setString(6, event.note());
+                        ps.setTimestamp(7, Timestamp.from(event.performedAt().toInstant()));
+                        ps.setLong(8, event.priceRecordId());
+                    }));
+            inFlight = withoutFlushed(inFlight, batch);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        log.debug("Flushed {} audit events", batch.size());
+    }
+
+    private static List<AuditEvent> withoutFlushed(List<AuditEvent> pending, List<AuditEvent> flushed) {
+        if (pending.isEmpty() || flushed == pending) {
+            return List.of();
+        }
+        // By identity: two events can be equal and still both need inserting
+        Set<AuditEvent> done = Collections.newSetFromMap(new IdentityHashMap<>());
+        done.addAll(flushed);
+        return pending.stream().filter(event -> !done.contains(event)).toList();
+    }
+
+    /**
+     * Inserts each event in flight on its own and dead-letters those rejected outright. Stops at the
+     * first transient failure, leaving that event and the rest in flight.
+     *
+     * @return whether every event was either inserted or dead-lettered
+     */
+    private boolean flushIndividually() {
+        List<AuditEvent> batch = inFlight;
+        List<AuditEvent> failed = new ArrayList<>();
+        boolean finished = true;
+        for (AuditEvent event : batch) {
+            try {
+                flush(List.of(event));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    finished = false;
+                    break;
+                }
+                log.warn("Audit event for price record {} could not be inserted: {}", event.priceRecordId(), e.getMessage());
+                failed.add(event);
+            }
+        }
+        if (!failed.isEmpty()) {
+            writeNdjson(deadLetterFile, failed);
+            deadLettered.increment(failed.size());
+            log.error("Moved {} audit events to dead-letter file {}", failed.size(), deadLetterFile);
+        }
+        flushLock.writeLock().lock();
+        try {
+            inFlight = withoutFlushed(inFlight, failed);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        return finished;
+    }
+
+    private void writeNdjson(Path file, List<AuditEvent> events) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditEvent event : events) {
+                    out.write(objectMapper.writeValueAsString(event));
+                    out.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to write {} audit events to {}; they are lost: {}", events.size(), file, events, e);
+        }
+    }
+
+    private void replayJournal() {
+        if (!Files.exists(journalFile)) {
+            return;
+        }
+        List<AuditEvent> events = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    events.add(objectMapper.readValue(line, AuditEvent.class));
+                }
+            }
+            Files.delete(journalFile);
+        } catch (IOException e) {
+            // Keep the journal for the next start rather than risk losing it
+            log.error("Failed to read audit journal {}", journalFile, e);
+            return;
+        }
+
+        int replayed = 0;
+        try {
+            while (replayed < events.size()) {
+                int to = Math.min(replayed + batchSize, events.size());
+                flush(events.subList(replayed, to));
+                replayed = to;
+            }
+            log.info("Replayed {} journaled audit events from {}", events.size(), journalFile);
+        } catch (RuntimeException e) {
+            log.error("Failed to replay audit journal {} after {} events, keeping the rest", journalFile, replayed, e);
+            writeNdjson(journalFile, events.subList(replayed, events.size()));
+        }
+    }
+
+    /**
+     * Retries dead-lettered events one at a time. Events rejected again are kept in the file, as is
+     * everything from the first transient failure on, so nothing leaves the file without a row.
+     */
+    private void replayDeadLetters() {
+        if (!Files.exists(deadLetterFile)) {
+            return;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(deadLetterFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("Failed to read audit dead-letter file {}", deadLetterFile, e);
+            return;
+        }
+
+        List<String> kept = new ArrayList<>();
+        int replayed = 0;
+        boolean reachable = true;
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!reachable) {
+                kept.add(line);
+                continue;
+            }
+            try {
+                flush(List.of(objectMapper.readValue(line, AuditEvent.class)));
+                replayed++;
+            } catch (IOException e) {
+                log.warn("Unreadable audit dead letter kept in {}: {}", deadLetterFile, e.getMessage());
+                kept.add(line);
+            } catch (RuntimeException e) {
+                reachable = !isTransient(e);
+                kept.add(line);
+            }
+        }
+
+        try {
+            if (kept.isEmpty()) {
+                Files.delete(deadLetterFile);
+            } else if (replayed > 0) {
+                Path rewritten = deadLetterFile.resolveSibling(deadLetterFile.getFileName() + ".tmp");
+                Files.write(rewritten, kept, StandardCharsets.UTF_8);
+                Files.move(rewritten, deadLetterFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            // Left as it was, the replayed events would be inserted twice on the next start
+            log.error("Replayed {} audit dead letters but could not rewrite {}; remove those events from it by hand",
+                    replayed, deadLetterFile, e);
+            return;
+        }
+        if (replayed > 0 || !kept.isEmpty()) {
+            log.info("Replayed {} audit dead letters from {}, {} remain", replayed, deadLetterFile, kept.size());
+        }
+    }
+}
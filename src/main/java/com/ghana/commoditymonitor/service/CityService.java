@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 public class CityService {
 
     private final CityRepository cityRepository;
+    private final ReferenceDataCatalog referenceDataCatalog;
 
     @Transactional
     public CityResponseDto createCity(CityRequestDto request) {
@@ -38,6 +39,7 @@ public class CityService {
                 .build();
 
         City savedCity = cityRepository.save(city);
+        referenceDataCatalog.invalidateCities();
         return mapToResponse(savedCity);
     }
 
@@ -76,6 +78,7 @@ public class CityService {
         city.setRegion(request.region());
 
         City updatedCity = cityRepository.save(city);
+        referenceDataCatalog.invalidateCities();
         return mapToResponse(updatedCity);
     }
 
@@ -86,6 +89,7 @@ public class CityService {
             throw new ResourceNotFoundException("City", "id", id);
         }
         cityRepository.deleteById(id);
+        referenceDataCatalog.invalidateCities();
     }
 
     private CityResponseDto mapToResponse(City city) {
@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 public class CommodityService {
 
     private final CommodityRepository commodityRepository;
+    private final ReferenceDataCatalog referenceDataCatalog;
 
     @Transactional
     public CommodityResponseDto createCommodity(CommodityRequestDto request) {
@@ -39,6 +40,7 @@ public class CommodityService {
                 .build();
 
         Commodity savedCommodity = commodityRepository.save(commodity);
+        referenceDataCatalog.invalidateCommodities();
         return mapToResponse(savedCommodity);
     }
 
@@ -78,6 +80,7 @@ public class CommodityService {
         commodity.setUnit(request.unit());
 
         Commodity updatedCommodity = commodityRepository.save(commodity);
+        referenceDataCatalog.invalidateCommodities();
         return mapToResponse(updatedCommodity);
     }
 
@@ -88,6 +91,7 @@ public class CommodityService {
             throw new ResourceNotFoundException("Commodity", "id", id);
         }
         commodityRepository.deleteById(id);
+        referenceDataCatalog.invalidateCommodities();
     }
 
     private CommodityResponseDto mapToResponse(Commodity commodity) {
@@ -1,37 +1,62 @@
 package com.ghana.commoditymonitor.service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.ghana.commoditymonitor.dto.projection.PriceRecordExportView;
+import com.ghana.commoditymonitor.dto.projection.UserRef;
 import com.ghana.commoditymonitor.dto.request.ExportRequestDto;
 import com.ghana.commoditymonitor.dto.response.ExportLogDto;
 import com.ghana.commoditymonitor.entity.ExportLog;
-import com.ghana.commoditymonitor.entity.PriceRecord;
 import com.ghana.commoditymonitor.entity.User;
+import com.ghana.commoditymonitor.enums.ContentCoding;
+import com.ghana.commoditymonitor.enums.ExportJobStatus;
 import com.ghana.commoditymonitor.enums.ExportType;
+import com.ghana.commoditymonitor.enums.IncrementalSince;
 import com.ghana.commoditymonitor.exception.BusinessRuleException;
 import com.ghana.commoditymonitor.repository.ExportLogRepository;
+import com.ghana.commoditymonitor.repository.PriceRecordExportRepository;
 import com.ghana.commoditymonitor.repository.PriceRecordRepository;
 import com.ghana.commoditymonitor.repository.UserRepository;
 import com.ghana.commoditymonitor.security.UserPrincipal;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.*;
+import com.ghana.commoditymonitor.util.CloseShieldOutputStream;
+import com.ghana.commoditymonitor.util.CountingOutputStream;
+import com.ghana.commoditymonitor.util.OutputStreamOutputFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Service
@@ -42,334 +67,374 @@ public class DataExportService {
     private final PriceRecordRepository priceRecordRepository;
     private final ExportLogRepository exportLogRepository;
     private final UserRepository userRepository;
-    private final EntityManager entityManager;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final PriceRecordExportRepository priceRecordExportRepository;
+    private final ExportResultCache exportResultCache;
+    private final ExportSizeEstimator exportSizeEstimator;
+    private final ExcelWorkbookRenderer excelWorkbookRenderer;
+    private final TransactionTemplate transactionTemplate;
     private final ObjectMapper objectMapper;
 
-    private static final int MAX_EXPORT_ROWS = 100_000;
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
+    @Value("${app.export.parquet.compression:ZSTD}")
+    private CompressionCodecName parquetCompression;
+
+    @Value("${app.export.parquet.row-group-size:32MB}")
+    private DataSize parquetRowGroupSize;
+
+    @Value("${app.export.compression.gzip-level:6}")
+    private int gzipLevel;
+
+    @Value("${app.export.compression.zstd-level:3}")
+    private int zstdLevel;
 
-    public record ExportResult(byte[] data, String filename, String contentType, int rowCount) {}
+    @Value("${app.export.excel.sync-row-limit:25000}")
+    private long excelSyncRowLimit;
 
+    @Value("${app.export.incremental.overlap:5m}")
+    private Duration incrementalOverlap;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
+    private static final String CSV_HEADER =
+        "ID,Commodity,Category,Unit,Market,City,Price (GHS),Recorded Date,Source,Submitted By,Status\n";
+
+    /**
+     * A download ready to be written; {@code body} runs after the controller returns, on the
+     * servlet container's async thread.
+     */
+    public record ExportStream(String filename, String contentType, ContentCoding contentCoding,
+                               StreamingResponseBody body) {}
+
+    /** What a finished synchronous export delivered, for the export log. */
+    private record ExportOutcome(int rowCount, long fileSize, long rawSize, ContentCoding coding, boolean cacheHit,
+                                 OffsetDateTime watermark) {}
+
+    /**
+     * @param acceptEncoding the client's {@code Accept-Encoding} header; streamed text formats are
+     *                       compressed on the fly with the preferred coding it allows
+     */
     @Transactional
-    public ExportResult exportPriceRecords(ExportRequestDto dto, UserPrincipal principal, String ipAddress) {
+    public ExportStream exportPriceRecords(ExportRequestDto dto, UserPrincipal principal, String ipAddress,
+                                           String acceptEncoding) {
         log.info("Exporting price records: type={}, user={}", dto.exportType(), principal.username());
 
+        validateRequest(dto);
+        String filename = filename(dto.exportType(), LocalDate.now());
+
+        ContentCoding coding = dto.exportType().isCompressible()
+            ? ContentCoding.negotiate(acceptEncoding)
+            : ContentCoding.IDENTITY;
+        return new ExportStream(filename, dto.exportType().getContentType(), coding,
+            out -> streamExport(dto, principal, ipAddress, coding, out));
+    }
+
+    public void validateRequest(ExportRequestDto dto) {
         if (dto.toDate() != null && dto.fromDate() != null && dto.toDate().isBefore(dto.fromDate())) {
             throw new BusinessRuleException("End date cannot be before start date");
         }
-
-        // Count first to avoid OOM on large datasets
-        long totalCount = countFilteredRecords(dto);
-        if (totalCount > MAX_EXPORT_ROWS) {
-            throw new BusinessRuleException(
-                String.format("Export exceeds %,d rows (%,d matched). Please apply filters.", MAX_EXPORT_ROWS, totalCount)
-            );
+        if (dto.incrementalSince() != null && dto.changedSince() != null) {
+            throw new BusinessRuleException("Specify either incrementalSince or changedSince, not both");
         }
+    }
 
-        List<PriceRecord> records = fetchFilteredRecords(dto);
-
-        byte[] data;
-        String filename;
-        String contentType;
-
-        String timestamp = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-
-        if (dto.exportType() == ExportType.CSV) {
-            data = generateCsv(records);
-            filename = "commodity_prices_" + timestamp + ".csv";
-            contentType = "text/csv; charset=UTF-8";
-        } else {
-            data = generateExcel(records, dto.includeAnalyticsSummary());
-            filename = "commodity_prices_" + timestamp + ".xlsx";
-            contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    /**
+     * Turns {@code incrementalSince} into an explicit {@code changedSince}. For
+     * {@link IncrementalSince#LAST_EXPORT} that is the watermark of the user's previous completed
+     * export with the same filters, less a small overlap so records committed while that export
+     * was reading are not missed; with no previous export, everything is exported. Call this before
+     * exporting or submitting a job.
+     */
+    public ExportRequestDto resolveIncremental(ExportRequestDto dto, UserPrincipal principal) {
+        if (dto.incrementalSince() == null || dto.changedSince() != null) {
+            return dto;
         }
+        OffsetDateTime since = exportLogRepository
+            .findFirstByUserIdAndFilterHashAndStatusInAndWatermarkIsNotNullOrderByWatermarkDesc(
+                principal.id(), filterHash(dto), List.of(ExportJobStatus.COMPLETED, ExportJobStatus.EXPIRED))
+            .map(previous -> previous.getWatermark().minus(incrementalOverlap))
+            .orElse(null);
+        log.info("Incremental export for user={} resolved to changedSince={}", principal.username(), since);
+        return dto.withChangedSince(since);
+    }
 
-        saveExportLog(dto, principal, ipAddress, records.size(), data.length);
-
-        log.info("Export completed: {} rows, {} bytes", records.size(), data.length);
-        return new ExportResult(data, filename, contentType, records.size());
+    /**
+     * SHA-256 of the row filters of {@code dto}, ignoring format and delta options, so every export
+     * of the same rows shares it.
+     */
+    public String filterHash(ExportRequestDto dto) {
+        return ExportResultCache.sha256(ExportResultCache.canonicalFilters(dto));
     }
 
-    private long countFilteredRecords(ExportRequestDto dto) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
-        Root<PriceRecord> root = countQuery.from(PriceRecord.class);
-        countQuery.select(cb.count(root));
-        countQuery.where(buildFilterPredicates(cb, root, dto).toArray(new Predicate[0]));
-        return entityManager.createQuery(countQuery).getSingleResult();
+    /**
+     * Whether {@code dto} is too large to build within the request and should be queued as a
+     * background job instead. Only Excel is ever routed: nothing reaches the client until every
+     * sheet has been rendered, so a large workbook would leave the request idle for minutes.
+     */
+    public boolean requiresBackgroundJob(ExportRequestDto dto) {
+        return dto.exportType() == ExportType.EXCEL
+            && !exportSizeEstimator.check(dto, excelSyncRowLimit).withinLimit();
     }
 
-    private List<Predicate> buildFilterPredicates(CriteriaBuilder cb, Root<PriceRecord> root, ExportRequestDto dto) {
-        List<Predicate> predicates = new ArrayList<>();
-        predicates.add(cb.equal(root.get("status"), com.ghana.commoditymonitor.enums.PriceRecordStatus.APPROVED));
+    public String filename(ExportType exportType, LocalDate date) {
+        return "commodity_prices_" + date.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "." + exportType.getFileExtension();
+    }
 
-        if (dto.commodityIds() != null && !dto.commodityIds().isEmpty()) {
-            predicates.add(root.get("commodity").get("id").in(dto.commodityIds()));
-        }
-        if (dto.marketIds() != null && !dto.marketIds().isEmpty()) {
-            predicates.add(root.get("market").get("id").in(dto.marketIds()));
-        }
-        if (dto.cityIds() != null && !dto.cityIds().isEmpty()) {
-            predicates.add(root.get("market").get("city").get("id").in(dto.cityIds()));
-        }
-        if (dto.fromDate() != null) {
-            predicates.add(cb.greaterThanOrEqualTo(root.get("recordedDate"), dto.fromDate()));
+    /**
+     * Writes the export in the requested format to {@code out}; {@code progress} counts rows written.
+     */
+    public void writeExport(ExportRequestDto dto, OutputStream out, AtomicInteger progress) throws IOException {
+        switch (dto.exportType()) {
+            case CSV -> writeCsv(dto, out, progress);
+            case EXCEL -> writeExcel(dto, out, progress);
+            case PARQUET -> writeParquet(dto, out, progress);
+            case NDJSON -> writeNdjson(dto, out, progress);
         }
-        if (dto.toDate() != null) {
-            predicates.add(cb.lessThanOrEqualTo(root.get("recordedDate"), dto.toDate()));
-        }
-        return predicates;
     }
 
-    private List<PriceRecord> fetchFilteredRecords(ExportRequestDto dto) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<PriceRecord> query = cb.createQuery(PriceRecord.class);
-        Root<PriceRecord> root = query.from(PriceRecord.class);
-
-        root.fetch("commodity", JoinType.LEFT);
-        root.fetch("market", JoinType.LEFT);
-        root.fetch("submittedBy", JoinType.LEFT);
-
-        query.where(buildFilterPredicates(cb, root, dto).toArray(new Predicate[0]));
-        query.orderBy(
-            cb.desc(root.get("recordedDate")),
-            cb.asc(root.get("commodity").get("name"))
-        );
-
-        TypedQuery<PriceRecord> typedQuery = entityManager.createQuery(query);
-        return typedQuery.getResultList();
+    /**
+     * Writes the CSV straight from the export cursor to {@code out}, so memory use does not grow
+     * with the number of rows. {@code progress} is incremented as each row is written.
+     */
+    public void writeCsv(ExportRequestDto dto, OutputStream out, AtomicInteger progress) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        try {
+            priceRecordExportRepository.streamApproved(dto, record -> {
+                writeCsvRow(writer, record);
+                progress.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
     }
 
-    private byte[] generateCsv(List<PriceRecord> records) {
-        StringBuilder csv = new StringBuilder();
-
-        csv.append("ID,Commodity,Category,Unit,Market,City,Price (GHS),Recorded Date,Source,Submitted By,Status\n");
-
-        for (PriceRecord record : records) {
-            csv.append(record.getId()).append(",");
-            csv.append(escapeCsv(record.getCommodity().getName())).append(",");
-            csv.append(escapeCsv(record.getCommodity().getCategory())).append(",");
-            csv.append(escapeCsv(record.getCommodity().getUnit())).append(",");
-            csv.append(escapeCsv(record.getMarket().getName())).append(",");
-            csv.append(escapeCsv(record.getMarket().getCity().getName())).append(",");
-            csv.append(record.getPrice()).append(",");
-            csv.append(record.getRecordedDate().format(DATE_FORMATTER)).append(",");
-            csv.append(escapeCsv(record.getSource() != null ? record.getSource() : "")).append(",");
-            csv.append(escapeCsv(record.getSubmittedBy() != null ? record.getSubmittedBy().getUsername() : "")).append(",");
-            csv.append(record.getStatus()).append("\n");
+    /**
+     * Writes typed, dictionary-encoded, compressed Parquet straight from the export cursor to
+     * {@code out}. Only the row group being filled is held in memory.
+     */
+    public void writeParquet(ExportRequestDto dto, OutputStream out, AtomicInteger progress) throws IOException {
+        try (ParquetWriter<PriceRecordExportView> writer = new PriceRecordParquetWriterBuilder(new OutputStreamOutputFile(out))
+                .withConf(new PlainParquetConfiguration())
+                .withCompressionCodec(parquetCompression)
+                .withRowGroupSize(parquetRowGroupSize.toBytes())
+                .withDictionaryEncoding(true)
+                .build()) {
+            priceRecordExportRepository.streamApproved(dto, record -> {
+                try {
+                    writer.write(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                progress.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-
-        return csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
     }
 
-    private String escapeCsv(String value) {
-        if (value == null) {
-            return "";
-        }
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    /**
+     * Writes one JSON object per line straight from the export cursor to {@code out}. Writes block
+     * while the client is not reading, which in turn pauses the cursor, so a slow consumer holds
+     * back the database rather than filling memory.
+     */
+    public void writeNdjson(ExportRequestDto dto, OutputStream out, AtomicInteger progress) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            priceRecordExportRepository.streamApproved(dto, record -> {
+                try {
+                    writeNdjsonRow(generator, record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                progress.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        return value;
     }
 
-    private byte[] generateExcel(List<PriceRecord> records, boolean includeAnalytics) {
-        try (XSSFWorkbook xssfWorkbook = new XSSFWorkbook();
-             SXSSFWorkbook workbook = new SXSSFWorkbook(xssfWorkbook, 100);
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            createPriceRecordsSheet(workbook, records);
-
-            if (includeAnalytics) {
-                createMonthlySummarySheet(workbook, records);
-            }
-
-            workbook.write(out);
-            return out.toByteArray();
-
-        } catch (IOException e) {
-            log.error("Error generating Excel file", e);
-            throw new RuntimeException("Failed to generate Excel file", e);
+    /**
+     * Builds the workbook from the export cursor into {@code out}, split across sheets as needed;
+     * see {@link ExcelWorkbookRenderer}. {@code progress} is incremented as each row is read.
+     */
+    public void writeExcel(ExportRequestDto dto, OutputStream out, AtomicInteger progress) throws IOException {
+        try {
+            excelWorkbookRenderer.render(sink -> priceRecordExportRepository.streamApproved(dto, sink),
+                dto.includeAnalyticsSummary(), out, progress);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
-    private void createPriceRecordsSheet(Workbook workbook, List<PriceRecord> records) {
-        Sheet sheet = workbook.createSheet("Price Records");
-
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        CellStyle evenRowStyle = createEvenRowStyle(workbook);
-        CellStyle currencyStyle = createCurrencyStyle(workbook);
-        CellStyle dateStyle = createDateStyle(workbook);
-
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"ID", "Commodity", "Category", "Unit", "Market", "City", 
-                           "Price (GHS)", "Recorded Date", "Source", "Status"};
-
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+    /**
+     * Streams an export to the response, compressing it with {@code coding}, and
+     * logs it once the last row has been written. Identical requests against unchanged data are
+     * served from {@link ExportResultCache}; misses are recorded into it as they stream.
+     */
+    private void streamExport(ExportRequestDto dto, UserPrincipal principal, String ipAddress,
+                              ContentCoding coding, OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        OffsetDateTime watermark = OffsetDateTime.now();
+        CountingOutputStream wire = new CountingOutputStream(out);
+
+        String cacheKey = exportResultCache.key(dto, coding);
+        Optional<ExportResultCache.Hit> cached = exportResultCache.lookup(cacheKey);
+        if (cached.isPresent()) {
+            ExportResultCache.Hit hit = cached.get();
+            try (InputStream in = hit.content()) {
+                in.transferTo(wire);
+            }
+            transactionTemplate.executeWithoutResult(status -> saveExportLog(dto, principal, ipAddress,
+                new ExportOutcome(hit.rowCount(), wire.getCount(), hit.rawSize(), coding, true, watermark)));
+            log.info("{} export served from cache: {} rows, {} bytes in {}ms",
+                dto.exportType(), hit.rowCount(), wire.getCount(), System.currentTimeMillis() - startTime);
+            return;
         }
 
-        int rowNum = 1;
-        for (PriceRecord record : records) {
-            Row row = sheet.createRow(rowNum);
+        ExportResultCache.Recorder recorder = exportResultCache.record(cacheKey, wire);
+        CloseShieldOutputStream shielded = new CloseShieldOutputStream(recorder);
+        OutputStream encoder = encode(shielded, coding);
+        CountingOutputStream raw = new CountingOutputStream(encoder);
+        AtomicInteger rowCount = new AtomicInteger();
 
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = row.createCell(i);
-                if (rowNum % 2 == 0) {
-                    cell.setCellStyle(evenRowStyle);
-                }
+        try {
+            // An IOException here means the client went away mid-download; nothing to log
+            writeExport(dto, raw, rowCount);
+            // Closing the encoder writes its trailer; the response stream itself stays open
+            encoder.close();
+        } catch (IOException | RuntimeException e) {
+            recorder.abort();
+            // Free the Deflater or zstd context, but send no trailer that would make a truncated export look complete
+            shielded.detach();
+            try {
+                encoder.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
             }
-
-            row.getCell(0).setCellValue(record.getId());
-            row.getCell(1).setCellValue(record.getCommodity().getName());
-            row.getCell(2).setCellValue(record.getCommodity().getCategory());
-            row.getCell(3).setCellValue(record.getCommodity().getUnit());
-            row.getCell(4).setCellValue(record.getMarket().getName());
-            row.getCell(5).setCellValue(record.getMarket().getCity().getName());
-
-            Cell priceCell = row.getCell(6);
-            priceCell.setCellValue(record.getPrice().doubleValue());
-            priceCell.setCellStyle(currencyStyle);
-
-            Cell dateCell = row.getCell(7);
-            dateCell.setCellValue(record.getRecordedDate());
-            dateCell.setCellStyle(dateStyle);
-
-            row.getCell(8).setCellValue(record.getSource() != null ? record.getSource() : "");
-            row.getCell(9).setCellValue(record.getStatus().name());
-
-            rowNum++;
+            throw e;
         }
+        recorder.commit(rowCount.get(), raw.getCount());
 
-        // Note: autoSizeColumn is very expensive on SXSSF and requires trackAllColumnsForAutoSizing
-        // For performance on large sets, we'll skip it or use fixed widths if preferred.
-        // ((SXSSFSheet)sheet).trackAllColumnsForAutoSizing(); 
-        for (int i = 0; i < headers.length; i++) {
-            sheet.setColumnWidth(i, 15 * 256);
-        }
+        transactionTemplate.executeWithoutResult(status -> saveExportLog(dto, principal, ipAddress,
+            new ExportOutcome(rowCount.get(), wire.getCount(), raw.getCount(), coding, false, watermark)));
 
-        sheet.createFreezePane(0, 1);
+        log.info("{} export streamed: {} rows, {} bytes ({} bytes {}) in {}ms",
+            dto.exportType(), rowCount.get(), raw.getCount(), wire.getCount(), coding.getToken(),
+            System.currentTimeMillis() - startTime);
     }
 
-    private void createMonthlySummarySheet(Workbook workbook, List<PriceRecord> records) {
-        Sheet sheet = workbook.createSheet("Monthly Summary");
-
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        CellStyle currencyStyle = createCurrencyStyle(workbook);
-
-        Map<String, Map<String, List<BigDecimal>>> monthlyData = records.stream()
-            .collect(Collectors.groupingBy(
-                pr -> pr.getCommodity().getName(),
-                Collectors.groupingBy(
-                    pr -> pr.getRecordedDate().format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                    Collectors.mapping(PriceRecord::getPrice, Collectors.toList())
-                )
-            ));
+    private OutputStream encode(CloseShieldOutputStream shielded, ContentCoding coding) throws IOException {
+        return switch (coding) {
+            case ZSTD -> new ZstdOutputStream(shielded, zstdLevel);
+            case GZIP -> new GZIPOutputStream(shielded, 64 * 1024) {
+                {
+                    def.setLevel(gzipLevel);
+                }
+            };
+            case IDENTITY -> shielded;
+        };
+    }
 
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"Commodity", "Month", "Average Price (GHS)", "Record Count"};
+    private static final class PriceRecordParquetWriterBuilder
+            extends ParquetWriter.Builder<PriceRecordExportView, PriceRecordParquetWriterBuilder> {
 
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+        PriceRecordParquetWriterBuilder(OutputFile file) {
+            super(file);
         }
 
-        int rowNum = 1;
-        for (Map.Entry<String, Map<String, List<BigDecimal>>> commodityEntry : monthlyData.entrySet()) {
-            String commodity = commodityEntry.getKey();
-
-            for (Map.Entry<String, List<BigDecimal>> monthEntry : commodityEntry.getValue().entrySet()) {
-                String month = monthEntry.getKey();
-                List<BigDecimal> prices = monthEntry.getValue();
-
-                BigDecimal avgPrice = prices.stream()
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    .divide(BigDecimal.valueOf(prices.size()), 2, java.math.RoundingMode.HALF_UP);
-
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(commodity);
-                row.createCell(1).setCellValue(month);
-
-                Cell avgCell = row.createCell(2);
-                avgCell.setCellValue(avgPrice.doubleValue());
-                avgCell.setCellStyle(currencyStyle);
-
-                row.createCell(3).setCellValue(prices.size());
-            }
+        @Override
+        protected PriceRecordParquetWriterBuilder self() {
+            return this;
         }
 
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-            if (sheet.getColumnWidth(i) > 50 * 256) {
-                sheet.setColumnWidth(i, 50 * 256);
-            }
+        @Override
+        protected WriteSupport<PriceRecordExportView> getWriteSupport(ParquetConfiguration conf) {
+            return new PriceRecordParquetWriteSupport();
         }
 
-        sheet.createFreezePane(0, 1);
-    }
-
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setFillForegroundColor(IndexedColors.DARK_GREEN.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        Font font = workbook.createFont();
-        font.setColor(IndexedColors.WHITE.getIndex());
-        font.setBold(true);
-        font.setFontHeightInPoints((short) 11);
-        style.setFont(font);
-
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-
-        return style;
+        // Still abstract in the builder; unused, as build() is given a ParquetConfiguration
+        @Override
+        @Deprecated
+        protected WriteSupport<PriceRecordExportView> getWriteSupport(Configuration conf) {
+            return new PriceRecordParquetWriteSupport();
+        }
     }
 
-    private CellStyle createEvenRowStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setFillForegroundColor(IndexedColors.LIGHT_GREEN.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        return style;
+    private void writeNdjsonRow(JsonGenerator generator, PriceRecordExportView record) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", record.id());
+        generator.writeStringField("commodity", record.commodityName());
+        generator.writeStringField("category", record.category());
+        generator.writeStringField("unit", record.unit());
+        generator.writeStringField("market", record.marketName());
+        generator.writeStringField("city", record.cityName());
+        generator.writeNumberField("priceGhs", record.price());
+        generator.writeStringField("recordedDate", record.recordedDate().toString());
+        generator.writeStringField("source", record.source());
+        generator.writeStringField("submittedBy", record.submittedByUsername());
+        generator.writeStringField("status", record.status().name());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
     }
 
-    private CellStyle createCurrencyStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        DataFormat format = workbook.createDataFormat();
-        style.setDataFormat(format.getFormat("#,##0.00"));
-        return style;
+    private void writeCsvRow(Writer writer, PriceRecordExportView record) {
+        try {
+            writer.write(String.valueOf(record.id()));
+            writer.write(',');
+            writer.write(escapeCsv(record.commodityName()));
+            writer.write(',');
+            writer.write(escapeCsv(record.category()));
+            writer.write(',');
+            writer.write(escapeCsv(record.unit()));
+            writer.write(',');
+            writer.write(escapeCsv(record.marketName()));
+            writer.write(',');
+            writer.write(escapeCsv(record.cityName()));
+            writer.write(',');
+            writer.write(record.price().toString());
+            writer.write(',');
+            writer.write(record.recordedDate().format(DATE_FORMATTER));
+            writer.write(',');
+            writer.write(escapeCsv(record.source() != null ? record.source() : ""));
+            writer.write(',');
+            writer.write(escapeCsv(record.submittedByUsername() != null ? record.submittedByUsername() : ""));
+            writer.write(',');
+            writer.write(record.status().name());
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private CellStyle createDateStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        DataFormat format = workbook.createDataFormat();
-        style.setDataFormat(format.getFormat("dd-mmm-yyyy"));
-        return style;
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
     }
 
-    private void saveExportLog(ExportRequestDto dto, UserPrincipal principal, 
-                               String ipAddress, int rowCount, long fileSize) {
+    private void saveExportLog(ExportRequestDto dto, UserPrincipal principal, String ipAddress,
+                               ExportOutcome outcome) {
         try {
-            User user = userRepository.findByUsername(principal.username()).orElse(null);
-
-            String filtersJson = objectMapper.writeValueAsString(Map.of(
-                "commodityIds", dto.commodityIds() != null ? dto.commodityIds() : "null",
-                "marketIds", dto.marketIds() != null ? dto.marketIds() : "null",
-                "cityIds", dto.cityIds() != null ? dto.cityIds() : "null",
-                "fromDate", dto.fromDate() != null ? dto.fromDate().toString() : "null",
-                "toDate", dto.toDate() != null ? dto.toDate().toString() : "null",
-                "includeAnalyticsSummary", dto.includeAnalyticsSummary()
-            ));
+            User user = referenceDataCatalog.findUserIdByUsername(principal.username())
+                .map(userRepository::getReferenceById)
+                .orElse(null);
 
             ExportLog log = ExportLog.builder()
                 .user(user)
                 .exportType(dto.exportType().name())
-                .filters(filtersJson)
-                .rowCount(rowCount)
-                .fileSize(fileSize)
+                .filters(describeFilters(dto))
+                .filterHash(filterHash(dto))
+                .watermark(outcome.watermark())
+                .rowCount(outcome.rowCount())
+                .fileSize(outcome.fileSize())
+                .rawSize(outcome.rawSize())
+                .contentEncoding(outcome.coding() == ContentCoding.IDENTITY ? null : outcome.coding().getToken())
+                .cacheHit(outcome.cacheHit())
                 .ipAddress(ipAddress)
                 .build();
 
@@ -380,6 +445,25 @@ public class DataExportService {
         }
     }
 
+    /**
+     * JSON summary of the request filters, as stored on the export log.
+     */
+    public String describeFilters(ExportRequestDto dto) {
+        try {
+            return objectMapper.writeValueAsString(Map.of(
+                "commodityIds", dto.commodityIds() != null ? dto.commodityIds() : "null",
+                "marketIds", dto.marketIds() != null ? dto.marketIds() : "null",
+                "cityIds", dto.cityIds() != null ? dto.cityIds() : "null",
+                "fromDate", dto.fromDate() != null ? dto.fromDate().toString() : "null",
+                "toDate", dto.toDate() != null ? dto.toDate().toString() : "null",
+                "changedSince", dto.changedSince() != null ? dto.changedSince().toString() : "null",
+                "includeAnalyticsSummary", dto.includeAnalyticsSummary()
+            ));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize export filters", e);
+        }
+    }
+
     public Page<ExportLogDto> getMyExportHistory(Long userId, Pageable pageable) {
         return exportLogRepository.findByUserIdOrderByExportedAtDesc(userId, pageable)
             .map(this::mapToDto);
@@ -393,12 +477,17 @@ public class DataExportService {
     private ExportLogDto mapToDto(ExportLog log) {
         return new ExportLogDto(
             log.getId(),
-            log.getUser() != null ? log.getUser().getUsername() : null,
+            log.getUser() != null ? referenceDataCatalog.findUser(log.getUser().getId()).map(UserRef::username).orElse(null) : null,
             log.getExportType(),
             log.getRowCount(),
             log.getFileSize() / 1024,
+            log.getRawSize() != null ? log.getRawSize() / 1024 : null,
+            log.getContentEncoding(),
+            log.isCacheHit(),
             log.getIpAddress(),
-            log.getExportedAt()
+            log.getExportedAt(),
+            log.getStatus(),
+            log.getDurationMs()
         );
     }
 }
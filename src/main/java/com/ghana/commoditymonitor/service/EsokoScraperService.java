@@ -20,8 +20,6 @@ import java.time.LocalDate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.ghana.commoditymonitor.entity.Commodity;
-import com.ghana.commoditymonitor.entity.Market;
 import com.ghana.commoditymonitor.entity.PriceRecord;
 import com.ghana.commoditymonitor.enums.PriceRecordStatus;
 import com.ghana.commoditymonitor.repository.CommodityRepository;
@@ -36,6 +34,8 @@ public class EsokoScraperService {
     private final CommodityRepository commodityRepository;
     private final MarketRepository marketRepository;
     private final PriceRecordRepository priceRecordRepository;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final MarketHealthTracker marketHealthTracker;
 
     @Value("${app.scraper.esoko-url:https://marketplace.esoko.com/}")
     private String esokoUrl;
@@ -133,13 +133,13 @@ public class EsokoScraperService {
         LocalDate today = LocalDate.now();
 
         for (ScrapedPriceData data : scrapedData) {
-            Optional<Commodity> commodityOpt = commodityRepository.findByNameIgnoreCase(data.getCommodityName());
-            Optional<Market> marketOpt = marketRepository.findByNameIgnoreCase(data.getMarketName());
+            Optional<Long> commodityId = referenceDataCatalog.findCommodityIdByName(data.getCommodityName());
+            Optional<Long> marketId = referenceDataCatalog.findMarketIdByName(data.getMarketName());
 
-            if (commodityOpt.isPresent() && marketOpt.isPresent()) {
+            if (commodityId.isPresent() && marketId.isPresent()) {
                 PriceRecord record = PriceRecord.builder()
-                        .commodity(commodityOpt.get())
-                        .market(marketOpt.get())
+                        .commodity(commodityRepository.getReferenceById(commodityId.get()))
+                        .market(marketRepository.getReferenceById(marketId.get()))
                         .price(data.getPrice())
                         .recordedDate(today)
                         .source("ESOKO_AUTOMATED")
@@ -147,12 +147,13 @@ public class EsokoScraperService {
                         .build();
 
                 priceRecordRepository.save(record);
+                marketHealthTracker.approved(marketId.get(), commodityId.get(), today, data.getPrice());
                 savedCount++;
             } else {
                 unknownEntitiesCount++;
                 log.debug("Skipping record due to unmapped entities. Commodity: '{}' (Found: {}), Market: '{}' (Found: {})", 
-                        data.getCommodityName(), commodityOpt.isPresent(), 
-                        data.getMarketName(), marketOpt.isPresent());
+                        data.getCommodityName(), commodityId.isPresent(), 
+                        data.getMarketName(), marketId.isPresent());
             }
         }
 
@@ -0,0 +1,416 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.projection.PriceRecordExportView;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds price record workbooks of any size.
+ * <p>
+ * Rows arrive from the export cursor and are cut into chunks, which a small worker pool renders
+ * to sheet XML in temporary files while the cursor keeps reading. Chunks never span a sheet, and
+ * a new "Price Records" sheet is started every {@code max-rows-per-sheet} rows, below Excel's
+ * per-sheet limit. The rest of the workbook (styles, sheet settings, the monthly summary) is an
+ * ordinary POI template; the rendered rows are spliced into its empty sheets as the package is
+ * written, the same technique SXSSF uses internally. Cell styles are created once per workbook and
+ * referenced by index.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExcelWorkbookRenderer {
+
+    private static final String DATA_SHEET_NAME = "Price Records";
+    private static final String[] HEADERS = {"ID", "Commodity", "Category", "Unit", "Market", "City",
+                                             "Price (GHS)", "Recorded Date", "Source", "Status"};
+    private static final String[] COLUMNS = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
+    private static final String EMPTY_SHEET_DATA = "<sheetData/>";
+
+    @Value("${app.export.excel.render-threads:4}")
+    private int renderThreads;
+
+    @Value("${app.export.excel.chunk-rows:50000}")
+    private int chunkRows;
+
+    @Value("${app.export.excel.max-rows-per-sheet:1000000}")
+    private int maxRowsPerSheet;
+
+    private ExecutorService executor;
+
+    /**
+     * Style indices in the template workbook; {@code 0} is the workbook default.
+     */
+    private record Styles(int header, int[] text, int[] currency, int[] date) {}
+
+    /** A run of consecutive rows of one sheet, starting at 1-based sheet row {@code firstRow}. */
+    private record Chunk(int firstRow, List<PriceRecordExportView> records) {}
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(renderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "excel-render-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Writes the workbook for the rows {@code source} emits, in order, to {@code out}, which is
+     * left open. {@code progress} is incremented as each row is read.
+     */
+    public void render(Consumer<Consumer<PriceRecordExportView>> source, boolean includeSummary,
+                       OutputStream out, AtomicInteger progress) throws IOException {
+        Path workDir = Files.createTempDirectory("xlsx-export-");
+        XSSFWorkbook template = new XSSFWorkbook();
+        // Bounds the chunks held in memory: the cursor waits while every worker is busy
+        Semaphore inFlight = new Semaphore(renderThreads + 1);
+        List<List<Future<Path>>> sheets = new ArrayList<>();
+        sheets.add(new ArrayList<>());
+        try {
+            // Styles first, so rendering threads only ever see their fixed indices
+            Styles styles = createStyles(template);
+            MonthlySummaryAccumulator summary = includeSummary ? new MonthlySummaryAccumulator() : null;
+            List<PriceRecordExportView> pending = new ArrayList<>(chunkRows);
+            int[] sheetRows = {0};
+            int[] chunkFirstRow = {2};
+
+            source.accept(record -> {
+                if (sheetRows[0] == maxRowsPerSheet) {
+                    submit(workDir, styles, sheets, new Chunk(chunkFirstRow[0], pending), inFlight);
+                    sheets.add(new ArrayList<>());
+                    sheetRows[0] = 0;
+                    chunkFirstRow[0] = 2;
+                }
+                pending.add(record);
+                sheetRows[0]++;
+                if (summary != null) {
+                    summary.add(record);
+                }
+                if (pending.size() == chunkRows) {
+                    submit(workDir, styles, sheets, new Chunk(chunkFirstRow[0], pending), inFlight);
+                    chunkFirstRow[0] += chunkRows;
+                }
+                progress.incrementAndGet();
+            });
+            submit(workDir, styles, sheets, new Chunk(chunkFirstRow[0], pending), inFlight);
+
+            List<List<Path>> rendered = new ArrayList<>(sheets.size());
+            for (List<Future<Path>> chunks : sheets) {
+                List<Path> files = new ArrayList<>(chunks.size());
+                for (Future<Path> chunk : chunks) {
+                    files.add(await(chunk));
+                }
+                rendered.add(files);
+            }
+            assemble(template, styles, rendered, summary, out);
+        } finally {
+            sheets.forEach(chunks -> chunks.forEach(chunk -> chunk.cancel(true)));
+            template.close();
+            FileSystemUtils.deleteRecursively(workDir);
+        }
+    }
+
+    /**
+     * Hands the rows collected in {@code chunk} to a worker and empties the caller's buffer.
+     */
+    private void submit(Path workDir, Styles styles, List<List<Future<Path>>> sheets, Chunk chunk,
+                        Semaphore inFlight) {
+        if (chunk.records().isEmpty()) {
+            return;
+        }
+        Chunk owned = new Chunk(chunk.firstRow(), List.copyOf(chunk.records()));
+        chunk.records().clear();
+        Path file = workDir.resolve("sheet" + sheets.size() + "-row" + owned.firstRow() + ".xml");
+
+        inFlight.acquireUninterruptibly();
+        try {
+            sheets.get(sheets.size() - 1).add(executor.submit(() -> {
+                try {
+                    renderChunk(owned, styles, file);
+                    return file;
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private static Path await(Future<Path> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering workbook", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render workbook rows", e.getCause());
+        }
+    }
+
+    /**
+     * Writes {@code chunk} as {@code <row>} elements referencing the template's styles by index.
+     */
+    private static void renderChunk(Chunk chunk, Styles styles, Path file) throws IOException {
+        StringBuilder row = new StringBuilder(512);
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 256 * 1024)) {
+            int rowNum = chunk.firstRow();
+            for (PriceRecordExportView record : chunk.records()) {
+                // Every other record row is shaded, starting with the second
+                int parity = rowNum % 2 == 1 ? 1 : 0;
+                row.setLength(0);
+                row.append("<row r=\"").append(rowNum).append("\">");
+                numberCell(row, 0, rowNum, styles.text()[parity], Long.toString(record.id()));
+                textCell(row, 1, rowNum, styles.text()[parity], record.commodityName());
+                textCell(row, 2, rowNum, styles.text()[parity], record.category());
+                textCell(row, 3, rowNum, styles.text()[parity], record.unit());
+                textCell(row, 4, rowNum, styles.text()[parity], record.marketName());
+                textCell(row, 5, rowNum, styles.text()[parity], record.cityName());
+                numberCell(row, 6, rowNum, styles.currency()[parity], record.price().toPlainString());
+                numberCell(row, 7, rowNum, styles.date()[parity],
+                    Long.toString((long) DateUtil.getExcelDate(record.recordedDate())));
+                textCell(row, 8, rowNum, styles.text()[parity], record.source());
+                textCell(row, 9, rowNum, styles.text()[parity], record.status().name());
+                row.append("</row>");
+                writer.append(row);
+                rowNum++;
+            }
+        }
+    }
+
+    private static String headerRow(Styles styles) {
+        StringBuilder row = new StringBuilder("<row r=\"1\">");
+        for (int i = 0; i < HEADERS.length; i++) {
+            textCell(row, i, 1, styles.header(), HEADERS[i]);
+        }
+        return row.append("</row>").toString();
+    }
+
+    private static void numberCell(StringBuilder row, int column, int rowNum, int style, String value) {
+        openCell(row, column, rowNum, style, null);
+        row.append("<v>").append(value).append("</v></c>");
+    }
+
+    private static void textCell(StringBuilder row, int column, int rowNum, int style, String value) {
+        openCell(row, column, rowNum, style, "inlineStr");
+        row.append("<is><t>");
+        if (value != null) {
+            appendEscaped(row, value);
+        }
+        row.append("</t></is></c>");
+    }
+
+    private static void openCell(StringBuilder row, int column, int rowNum, int style, String type) {
+        row.append("<c r=\"").append(COLUMNS[column]).append(rowNum).append('"');
+        if (style != 0) {
+            row.append(" s=\"").append(style).append('"');
+        }
+        if (type != null) {
+            row.append(" t=\"").append(type).append('"');
+        }
+        row.append('>');
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                default -> {
+                    // Control characters other than tab and newlines are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the template workbook to {@code out}, splicing each data sheet's rendered rows into
+     * its empty {@code <sheetData/>}.
+     */
+    private void assemble(XSSFWorkbook workbook, Styles styles, List<List<Path>> rendered,
+                          MonthlySummaryAccumulator summary, OutputStream out) throws IOException {
+        Map<String, List<Path>> sheetParts = new HashMap<>();
+        for (int i = 0; i < rendered.size(); i++) {
+            String name = i == 0 ? DATA_SHEET_NAME : DATA_SHEET_NAME + " (" + (i + 1) + ")";
+            XSSFSheet sheet = workbook.createSheet(name);
+            for (int column = 0; column < HEADERS.length; column++) {
+                sheet.setColumnWidth(column, 15 * 256);
+            }
+            sheet.createFreezePane(0, 1);
+            sheetParts.put(sheet.getPackagePart().getPartName().getName().substring(1), rendered.get(i));
+        }
+        if (summary != null) {
+            createMonthlySummarySheet(workbook, styles, summary);
+        }
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        workbook.write(template);
+
+        String header = headerRow(styles);
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try (ZipInputStream entries = new ZipInputStream(new ByteArrayInputStream(template.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = entries.getNextEntry()) != null) {
+                zip.putNextEntry(new ZipEntry(entry.getName()));
+                List<Path> rows = sheetParts.get(entry.getName());
+                if (rows == null) {
+                    entries.transferTo(zip);
+                } else {
+                    String sheetXml = new String(entries.readAllBytes(), StandardCharsets.UTF_8);
+                    int split = sheetXml.indexOf(EMPTY_SHEET_DATA);
+                    if (split < 0) {
+                        throw new IOException("Template sheet " + entry.getName() + " has no empty sheetData");
+                    }
+                    zip.write(sheetXml.substring(0, split).getBytes(StandardCharsets.UTF_8));
+                    zip.write(("<sheetData>" + header).getBytes(StandardCharsets.UTF_8));
+                    for (Path chunk : rows) {
+                        Files.copy(chunk, zip);
+                    }
+                    zip.write("</sheetData>".getBytes(StandardCharsets.UTF_8));
+                    zip.write(sheetXml.substring(split + EMPTY_SHEET_DATA.length()).getBytes(StandardCharsets.UTF_8));
+                }
+                zip.closeEntry();
+            }
+        }
+        // Finish rather than close: the caller owns the response stream
+        zip.finish();
+        zip.flush();
+    }
+
+    private static Styles createStyles(XSSFWorkbook workbook) {
+        DataFormat format = workbook.createDataFormat();
+        short currencyFormat = format.getFormat("#,##0.00");
+        short dateFormat = format.getFormat("dd-mmm-yyyy");
+
+        CellStyle header = workbook.createCellStyle();
+        header.setFillForegroundColor(IndexedColors.DARK_GREEN.getIndex());
+        header.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        Font font = workbook.createFont();
+        font.setColor(IndexedColors.WHITE.getIndex());
+        font.setBold(true);
+        font.setFontHeightInPoints((short) 11);
+        header.setFont(font);
+        header.setBorderBottom(BorderStyle.THIN);
+        header.setBorderTop(BorderStyle.THIN);
+        header.setBorderLeft(BorderStyle.THIN);
+        header.setBorderRight(BorderStyle.THIN);
+
+        CellStyle evenText = zebra(workbook.createCellStyle());
+        CellStyle currency = workbook.createCellStyle();
+        currency.setDataFormat(currencyFormat);
+        CellStyle evenCurrency = zebra(workbook.createCellStyle());
+        evenCurrency.setDataFormat(currencyFormat);
+        CellStyle date = workbook.createCellStyle();
+        date.setDataFormat(dateFormat);
+        CellStyle evenDate = zebra(workbook.createCellStyle());
+        evenDate.setDataFormat(dateFormat);
+
+        // Indexed by shading: [0] plain, [1] shaded
+        return new Styles(header.getIndex(),
+            new int[] {0, evenText.getIndex()},
+            new int[] {currency.getIndex(), evenCurrency.getIndex()},
+            new int[] {date.getIndex(), evenDate.getIndex()});
+    }
+
+    private static CellStyle zebra(CellStyle style) {
+        style.setFillForegroundColor(IndexedColors.LIGHT_GREEN.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        return style;
+    }
+
+    private void createMonthlySummarySheet(XSSFWorkbook workbook, Styles styles, MonthlySummaryAccumulator summary) {
+        XSSFSheet sheet = workbook.createSheet("Monthly Summary");
+        CellStyle headerStyle = workbook.getCellStyleAt(styles.header());
+        CellStyle currencyStyle = workbook.getCellStyleAt(styles.currency()[0]);
+
+        Row headerRow = sheet.createRow(0);
+        String[] headers = {"Commodity", "Month", "Average Price (GHS)", "Min Price (GHS)",
+                            "Approx. Median (GHS)", "Max Price (GHS)", "Record Count"};
+
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+
+        int rowNum = 1;
+        for (Map.Entry<MonthlySummaryAccumulator.Key, MonthlySummaryAccumulator.Stats> entry : summary.groups().entrySet()) {
+            MonthlySummaryAccumulator.Stats stats = entry.getValue();
+
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(entry.getKey().commodity());
+            row.createCell(1).setCellValue(entry.getKey().month().toString());
+
+            BigDecimal[] prices = {stats.average(), stats.min(), stats.median(), stats.max()};
+            for (int i = 0; i < prices.length; i++) {
+                Cell cell = row.createCell(2 + i);
+                cell.setCellValue(prices[i].doubleValue());
+                cell.setCellStyle(currencyStyle);
+            }
+
+            row.createCell(6).setCellValue(stats.count());
+        }
+
+        // One row per commodity and month, so auto-sizing is cheap here
+        for (int i = 0; i < headers.length; i++) {
+            sheet.autoSizeColumn(i);
+            if (sheet.getColumnWidth(i) > 50 * 256) {
+                sheet.setColumnWidth(i, 50 * 256);
+            }
+        }
+
+        sheet.createFreezePane(0, 1);
+    }
+}
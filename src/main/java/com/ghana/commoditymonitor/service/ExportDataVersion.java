@@ -0,0 +1,50 @@
+package com.ghana.commoditymonitor.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import static com.ghana.commoditymonitor.util.TransactionHooks.afterCommitOnce;
+
+/**
+ * Version of the data exports are built from, kept in {@code export_data_version_seq}.
+ * <p>
+ * Writes to price records and to the reference names exports denormalize advance it once their
+ * transaction commits (see {@link ExportDataVersionListener}), so a version is never observed
+ * before the data it covers and a cached export built at version N is valid while it is still N.
+ * Advancing is a {@code nextval}, so concurrent writers never wait on each other. Writes made
+ * outside the application are not seen; the cache starts empty on every restart.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportDataVersion {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long current() {
+        return jdbcTemplate.queryForObject(
+            "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM export_data_version_seq", Long.class);
+    }
+
+    /**
+     * Advances the version once the current transaction commits, however many rows it writes.
+     */
+    public void changed() {
+        afterCommitOnce(this, this::advance);
+    }
+
+    /**
+     * Advances the version now, for writes that bypass the entity listener.
+     */
+    public void advance() {
+        try {
+            // Sequences ignore transaction boundaries, so this takes effect even after the commit
+            jdbcTemplate.queryForObject("SELECT nextval('export_data_version_seq')", Long.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not advance the export data version; cached exports may be stale until the next write", e);
+        }
+    }
+}
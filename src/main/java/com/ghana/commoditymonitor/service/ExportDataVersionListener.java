@@ -0,0 +1,25 @@
+package com.ghana.commoditymonitor.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listener on the exported entities that advances {@link ExportDataVersion} after each
+ * committing write.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportDataVersionListener {
+
+    private final ExportDataVersion exportDataVersion;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void changed(Object entity) {
+        exportDataVersion.changed();
+    }
+}
@@ -0,0 +1,307 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.request.ExportRequestDto;
+import com.ghana.commoditymonitor.dto.response.ExportJobDto;
+import com.ghana.commoditymonitor.entity.ExportLog;
+import com.ghana.commoditymonitor.entity.User;
+import com.ghana.commoditymonitor.enums.ExportJobStatus;
+import com.ghana.commoditymonitor.enums.ExportType;
+import com.ghana.commoditymonitor.exception.BusinessRuleException;
+import com.ghana.commoditymonitor.exception.ResourceNotFoundException;
+import com.ghana.commoditymonitor.repository.ExportLogRepository;
+import com.ghana.commoditymonitor.repository.UserRepository;
+import com.ghana.commoditymonitor.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.ghana.commoditymonitor.util.TransactionHooks.afterCommit;
+
+/**
+ * Runs exports in the background and keeps their files in a local spool directory.
+ * <p>
+ * Each job is an {@link ExportLog} row that moves from QUEUED through RUNNING to COMPLETED or
+ * FAILED. A fixed pool of workers with a bounded queue generates the files, so a burst of large
+ * exports cannot exhaust request threads or database connections. Live progress is kept in memory
+ * while a job runs; artifacts are purged by {@code CommodityScheduler} once they expire.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportJobService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final DataExportService dataExportService;
+    private final ExportLogRepository exportLogRepository;
+    private final UserRepository userRepository;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.export.jobs.workers:2}")
+    private int workers;
+
+    @Value("${app.export.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.export.jobs.spool-dir:data/export-spool}")
+    private Path spoolDir;
+
+    @Value("${app.export.jobs.artifact-ttl:24h}")
+    private Duration artifactTtl;
+
+    private final Map<Long, AtomicInteger> progress = new ConcurrentHashMap<>();
+    private final OffsetDateTime processStartedAt = OffsetDateTime.now();
+    private ThreadPoolExecutor executor;
+
+    /**
+     * A finished export file ready to be served.
+     */
+    public record Artifact(Path path, String filename, String contentType) {}
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(spoolDir);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        // Jobs cut short here are marked failed on the next startup
+        executor.shutdownNow();
+    }
+
+    /**
+     * Jobs that were queued or running when the process last stopped can never finish. Jobs
+     * submitted since this process started are left alone, as requests may arrive before this runs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void failInterruptedJobs() {
+        List<ExportLog> interrupted = exportLogRepository.findByStatusInAndExportedAtBefore(
+                List.of(ExportJobStatus.QUEUED, ExportJobStatus.RUNNING), processStartedAt);
+        for (ExportLog job : interrupted) {
+            deleteQuietly(partialPath(job.getId(), ExportType.valueOf(job.getExportType())));
+            job.setStatus(ExportJobStatus.FAILED);
+            job.setErrorMessage("Interrupted by a server restart; please submit the export again");
+            job.setCompletedAt(OffsetDateTime.now());
+        }
+        if (!interrupted.isEmpty()) {
+            log.warn("Marked {} interrupted export jobs as failed", interrupted.size());
+        }
+    }
+
+    @Transactional
+    public ExportJobDto submit(ExportRequestDto dto, UserPrincipal principal, String ipAddress) {
+        dataExportService.validateRequest(dto);
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new BusinessRuleException("Too many exports are queued. Please try again shortly.");
+        }
+
+        User user = referenceDataCatalog.findUserIdByUsername(principal.username())
+            .map(userRepository::getReferenceById)
+            .orElse(null);
+
+        ExportLog job = exportLogRepository.save(ExportLog.builder()
+            .user(user)
+            .exportType(dto.exportType().name())
+            .filters(dataExportService.describeFilters(dto))
+            .filterHash(dataExportService.filterHash(dto))
+            .rowCount(0)
+            .fileSize(0L)
+            .ipAddress(ipAddress)
+            .status(ExportJobStatus.QUEUED)
+            .build());
+
+        Long jobId = job.getId();
+        afterCommit(() -> dispatch(jobId, dto));
+
+        log.info("Queued export job {}: type={}, user={}", jobId, dto.exportType(), principal.username());
+        return toDto(job);
+    }
+
+    public ExportJobDto getJob(Long id, UserPrincipal principal) {
+        return toDto(findOwnedJob(id, principal));
+    }
+
+    public Artifact getArtifact(Long id, UserPrincipal principal) {
+        ExportLog job = findOwnedJob(id, principal);
+        if (job.getStatus() == ExportJobStatus.EXPIRED) {
+            throw new BusinessRuleException("Export job " + id + " has expired. Please submit the export again.");
+        }
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            throw new BusinessRuleException("Export job " + id + " is not ready (status " + job.getStatus() + ")");
+        }
+
+        Path path = Path.of(job.getArtifactPath());
+        if (!Files.exists(path)) {
+            throw new ResourceNotFoundException("Export artifact", "jobId", id);
+        }
+        ExportType exportType = ExportType.valueOf(job.getExportType());
+        return new Artifact(path,
+            dataExportService.filename(exportType, job.getExportedAt().toLocalDate()),
+            exportType.getContentType());
+    }
+
+    /**
+     * Deletes artifacts past their retention window and marks their jobs EXPIRED.
+     *
+     * @return the number of artifacts purged
+     */
+    @Transactional
+    public int purgeExpiredArtifacts() {
+        List<ExportLog> expired = exportLogRepository.findByArtifactPathIsNotNullAndExpiresAtBefore(OffsetDateTime.now());
+        for (ExportLog job : expired) {
+            deleteQuietly(Path.of(job.getArtifactPath()));
+            job.setArtifactPath(null);
+            job.setStatus(ExportJobStatus.EXPIRED);
+        }
+        return expired.size();
+    }
+
+    private void dispatch(Long jobId, ExportRequestDto dto) {
+        try {
+            executor.execute(() -> run(jobId, dto));
+        } catch (RejectedExecutionException e) {
+            log.warn("Export job {} rejected: queue is full", jobId);
+            update(jobId, job -> {
+                job.setStatus(ExportJobStatus.FAILED);
+                job.setErrorMessage("Too many exports were queued. Please try again shortly.");
+                job.setCompletedAt(OffsetDateTime.now());
+            });
+        }
+    }
+
+    private void run(Long jobId, ExportRequestDto dto) {
+        AtomicInteger rowsWritten = new AtomicInteger();
+        progress.put(jobId, rowsWritten);
+        long startTime = System.currentTimeMillis();
+        update(jobId, job -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            job.setStatus(ExportJobStatus.RUNNING);
+            job.setStartedAt(now);
+            job.setWatermark(now);
+        });
+
+        Path partial = partialPath(jobId, dto.exportType());
+        Path artifact = artifactPath(jobId, dto.exportType());
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                dataExportService.writeExport(dto, out, rowsWritten);
+            }
+            Files.move(partial, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(artifact);
+            long durationMs = System.currentTimeMillis() - startTime;
+
+            update(jobId, job -> {
+                OffsetDateTime now = OffsetDateTime.now();
+                job.setStatus(ExportJobStatus.COMPLETED);
+                job.setRowCount(rowsWritten.get());
+                job.setFileSize(size);
+                job.setRawSize(size);
+                job.setArtifactPath(artifact.toString());
+                job.setCompletedAt(now);
+                job.setDurationMs(durationMs);
+                job.setExpiresAt(now.plus(artifactTtl));
+            });
+            log.info("Export job {} completed: {} rows, {} bytes in {}ms", jobId, rowsWritten.get(), size, durationMs);
+
+        } catch (Exception e) {
+            deleteQuietly(partial);
+            String message = e instanceof BusinessRuleException
+                ? e.getMessage()
+                : "Export failed: " + e.getClass().getSimpleName();
+            log.error("Export job {} failed after {} rows", jobId, rowsWritten.get(), e);
+            update(jobId, job -> {
+                job.setStatus(ExportJobStatus.FAILED);
+                job.setRowCount(rowsWritten.get());
+                job.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                job.setCompletedAt(OffsetDateTime.now());
+                job.setDurationMs(System.currentTimeMillis() - startTime);
+            });
+        } finally {
+            progress.remove(jobId);
+        }
+    }
+
+    private void update(Long jobId, Consumer<ExportLog> change) {
+        transactionTemplate.executeWithoutResult(status -> exportLogRepository.findById(jobId).ifPresent(change));
+    }
+
+    private ExportLog findOwnedJob(Long id, UserPrincipal principal) {
+        ExportLog job = exportLogRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Export job", "id", id));
+        boolean owner = job.getUser() != null && job.getUser().getId().equals(principal.id());
+        if (!owner && !principal.isAdmin()) {
+            // Other users' jobs are indistinguishable from missing ones
+            throw new ResourceNotFoundException("Export job", "id", id);
+        }
+        return job;
+    }
+
+    private ExportJobDto toDto(ExportLog job) {
+        AtomicInteger live = progress.get(job.getId());
+        return new ExportJobDto(
+            job.getId(),
+            job.getExportType(),
+            job.getStatus(),
+            live != null ? live.get() : job.getRowCount(),
+            job.getStatus() == ExportJobStatus.COMPLETED ? job.getFileSize() : null,
+            job.getDurationMs(),
+            job.getErrorMessage(),
+            job.getExportedAt(),
+            job.getCompletedAt(),
+            job.getExpiresAt(),
+            job.getStatus() == ExportJobStatus.COMPLETED ? "/api/v1/export/jobs/" + job.getId() + "/download" : null
+        );
+    }
+
+    private Path artifactPath(Long jobId, ExportType exportType) {
+        return spoolDir.resolve("export-" + jobId + "." + exportType.getFileExtension());
+    }
+
+    private Path partialPath(Long jobId, ExportType exportType) {
+        return spoolDir.resolve("export-" + jobId + "." + exportType.getFileExtension() + ".part");
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.request.ExportRequestDto;
+import com.ghana.commoditymonitor.enums.ContentCoding;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * On-disk cache of finished export files, keyed by a hash of the canonical request and the
+ * current {@link ExportDataVersion}.
+ * <p>
+ * Any write to the exported data advances the version, so stale entries are never looked up
+ * again; they simply age out of the LRU, which is bounded by total bytes. Entries are recorded by
+ * teeing the response stream while an export is generated, so a miss costs no extra pass. Files
+ * the cache left behind are removed at startup; nothing else in the directory is touched.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportResultCache {
+
+    private static final Pattern OWNED_FILE = Pattern.compile("[0-9a-f]{64}|export-.*\\.tmp");
+
+    private final ExportDataVersion exportDataVersion;
+
+    @Value("${app.export.cache.dir:data/export-cache}")
+    private Path cacheDir;
+
+    @Value("${app.export.cache.max-size:1GB}")
+    private DataSize maxSize;
+
+    @Value("${app.export.cache.max-entry-size:256MB}")
+    private DataSize maxEntrySize;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private record Entry(Path path, long size, int rowCount, long rawSize) {}
+
+    /**
+     * A cached export, opened for reading. The caller closes {@code content}.
+     */
+    public record Hit(InputStream content, long size, int rowCount, long rawSize) {}
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(cacheDir);
+        // Entries from a previous run are not indexed, so only their files need clearing
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir,
+                file -> Files.isRegularFile(file) && OWNED_FILE.matcher(file.getFileName().toString()).matches())) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} cached export files from a previous run in {}", removed, cacheDir);
+        }
+    }
+
+    /**
+     * Cache key for {@code dto} sent with {@code coding} against the data as of now. Read the key
+     * before generating the export so a concurrent write can only make the entry unreachable,
+     * never stale.
+     */
+    public String key(ExportRequestDto dto, ContentCoding coding) {
+        long version = exportDataVersion.current();
+
+        return sha256(String.join("|",
+            "type=" + dto.exportType(),
+            canonicalFilters(dto),
+            "since=" + (dto.changedSince() != null ? dto.changedSince().toInstant() : null),
+            "summary=" + dto.includeAnalyticsSummary(),
+            "coding=" + coding.getToken(),
+            "version=" + version));
+    }
+
+    /**
+     * The row filters of {@code dto} in a form that ignores id order and duplicates.
+     */
+    static String canonicalFilters(ExportRequestDto dto) {
+        return String.join("|",
+            "commodities=" + canonicalIds(dto.commodityIds()),
+            "markets=" + canonicalIds(dto.marketIds()),
+            "cities=" + canonicalIds(dto.cityIds()),
+            "from=" + dto.fromDate(),
+            "to=" + dto.toDate());
+    }
+
+    static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public synchronized Optional<Hit> lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try {
+            // Opened under the lock: an eviction after this point unlinks the file but the open stream stays readable
+            return Optional.of(new Hit(Files.newInputStream(entry.path()), entry.size(), entry.rowCount(), entry.rawSize()));
+        } catch (IOException e) {
+            log.warn("Cached export {} is unreadable, dropping it", entry.path(), e);
+            remove(key);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Wraps {@code out} so everything written is also captured for {@code key}. Call
+     * {@link Recorder#commit} once the export is complete, or {@link Recorder#abort} on failure.
+     * Exports larger than the entry limit pass through without being cached.
+     */
+    public Recorder record(String key, OutputStream out) throws IOException {
+        return new Recorder(key, out);
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void put(String key, Path file, long size, int rowCount, long rawSize) throws IOException {
+        Path target = cacheDir.resolve(key);
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Entry previous = entries.put(key, new Entry(target, size, rowCount, rawSize));
+        if (previous != null) {
+            totalBytes -= previous.size();
+        }
+        totalBytes += size;
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxSize.toBytes() && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            if (evicted.getKey().equals(key)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= evicted.getValue().size();
+            Files.deleteIfExists(evicted.getValue().path());
+            log.debug("Evicted cached export {} ({} bytes)", evicted.getKey(), evicted.getValue().size());
+        }
+    }
+
+    private synchronized void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.size();
+        }
+    }
+
+    private static String canonicalIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return "";
+        }
+        return ids.stream().distinct().sorted().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Tee that copies an export into a temporary cache file as it is written.
+     */
+    public final class Recorder extends FilterOutputStream {
+
+        private final String key;
+        private final Path file;
+        private OutputStream copy;
+        private long size;
+
+        private Recorder(String key, OutputStream out) throws IOException {
+            super(out);
+            this.key = key;
+            this.file = Files.createTempFile(cacheDir, "export-", ".tmp");
+            this.copy = Files.newOutputStream(file);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (copy == null) {
+                return;
+            }
+            size += len;
+            if (size > maxEntrySize.toBytes()) {
+                discardCopy();
+                return;
+            }
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+
+        public void commit(int rowCount, long rawSize) {
+            if (copy == null) {
+                return;
+            }
+            try {
+                copy.close();
+                copy = null;
+                put(key, file, size, rowCount, rawSize);
+            } catch (IOException e) {
+                log.warn("Could not cache export {}", key, e);
+                abort();
+            }
+        }
+
+        public void abort() {
+            discardCopy();
+        }
+
+        private void discardCopy() {
+            try {
+                if (copy != null) {
+                    copy.close();
+                    copy = null;
+                }
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete partial cached export {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.request.ExportRequestDto;
+import com.ghana.commoditymonitor.repository.PriceRecordExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-flight row-count check for exports.
+ * <p>
+ * Decides from the planner's row estimate, which costs one EXPLAIN rather than a scan. Only when
+ * the estimate lies within {@code uncertainty-factor} of the limit, where its error could flip the
+ * answer, is an exact count run, and that count stops one row past the limit.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportSizeEstimator {
+
+    private final PriceRecordExportRepository priceRecordExportRepository;
+
+    @Value("${app.export.size-check.uncertainty-factor:3.0}")
+    private double uncertaintyFactor;
+
+    /**
+     * Outcome of a size check. When {@code exact} is false, {@code rows} is the planner estimate;
+     * when true it is an exact count, capped at one past the limit.
+     */
+    public record SizeCheck(long rows, boolean exact, boolean withinLimit) {}
+
+    public SizeCheck check(ExportRequestDto dto, long limit) {
+        long estimate = priceRecordExportRepository.estimateApproved(dto);
+        if (estimate * uncertaintyFactor < limit) {
+            return new SizeCheck(estimate, false, true);
+        }
+        if (estimate > limit * uncertaintyFactor) {
+            return new SizeCheck(estimate, false, false);
+        }
+
+        long counted = priceRecordExportRepository.countApproved(dto, limit + 1);
+        log.debug("Export estimate {} is close to limit {}, exact count {}", estimate, limit, counted);
+        return new SizeCheck(counted, true, counted <= limit);
+    }
+}
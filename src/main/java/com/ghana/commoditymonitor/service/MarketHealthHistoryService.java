@@ -0,0 +1,86 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.projection.MarketHealthHistoryPoint;
+import com.ghana.commoditymonitor.dto.projection.MarketRef;
+import com.ghana.commoditymonitor.dto.response.MarketHealthHistoryDto;
+import com.ghana.commoditymonitor.exception.ValidationException;
+import com.ghana.commoditymonitor.repository.MarketHealthHistoryRepository;
+import com.ghana.commoditymonitor.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Retention and long-range reads of market health history.
+ * <p>
+ * Raw scores are kept for {@code app.health.retention.raw}, weekly roll-ups for
+ * {@code app.health.retention.weekly}, and monthly roll-ups indefinitely, so history grows by one
+ * row per market per month once it is old.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MarketHealthHistoryService {
+
+    private static final int MAX_HISTORY_MONTHS = 120;
+
+    private final MarketHealthHistoryRepository historyRepository;
+    private final ReferenceDataCatalog referenceDataCatalog;
+
+    @Value("${app.health.retention.raw:90d}")
+    private Duration rawRetention;
+
+    @Value("${app.health.retention.weekly:730d}")
+    private Duration weeklyRetention;
+
+    /**
+     * Rows moved down a tier by one retention pass.
+     */
+    public record RetentionSummary(int weeklyRollups, int monthlyRollups) {}
+
+    /**
+     * Rolls expired raw scores up into weeks, then expired weeks up into months.
+     */
+    @Transactional
+    public RetentionSummary downsample() {
+        int weekly = historyRepository.rollUpScores(OffsetDateTime.now().minus(rawRetention));
+        int monthly = historyRepository.rollUpWeeks(LocalDate.now().minusDays(weeklyRetention.toDays()));
+        log.info("Market health history downsampled: {} weekly and {} monthly roll-ups written", weekly, monthly);
+        return new RetentionSummary(weekly, monthly);
+    }
+
+    public MarketHealthHistoryDto getHistory(Long marketId, int months, UserPrincipal principal) {
+        if (months < 1 || months > MAX_HISTORY_MONTHS) {
+            throw new ValidationException("Months must be between 1 and " + MAX_HISTORY_MONTHS);
+        }
+        MarketRef market = referenceDataCatalog.getMarket(marketId);
+        log.debug("Fetching {} months of health history for market: {}", months, marketId);
+
+        List<MarketHealthHistoryDto.Point> points = historyRepository
+                .findHistory(marketId, LocalDate.now().minusMonths(months))
+                .stream()
+                .map(point -> toPoint(point, principal != null))
+                .toList();
+        return new MarketHealthHistoryDto(market.id(), market.name(), market.cityName(), points);
+    }
+
+    private MarketHealthHistoryDto.Point toPoint(MarketHealthHistoryPoint point, boolean authenticated) {
+        String grade = MarketHealthScoreService.gradeFor(point.avgScore());
+        if (!authenticated) {
+            return new MarketHealthHistoryDto.Point(point.resolution(), point.periodStart(), grade,
+                    null, null, null, null, null, null, null);
+        }
+        return new MarketHealthHistoryDto.Point(point.resolution(), point.periodStart(), grade,
+                point.avgScore(), point.minScore(), point.maxScore(), point.avgDataFreshness(),
+                point.avgPriceStability(), point.avgCoverage(), point.samples());
+    }
+}
@@ -1,18 +1,22 @@
 package com.ghana.commoditymonitor.service;
 
+import com.ghana.commoditymonitor.dto.projection.MarketRef;
 import com.ghana.commoditymonitor.dto.response.MarketHealthScoreDto;
 import com.ghana.commoditymonitor.entity.Market;
+import com.ghana.commoditymonitor.entity.MarketHealthLatest;
 import com.ghana.commoditymonitor.entity.MarketHealthScore;
 import com.ghana.commoditymonitor.exception.ResourceNotFoundException;
-import com.ghana.commoditymonitor.repository.MarketHealthScoreRepository;
-import com.ghana.commoditymonitor.repository.MarketRepository;
+import com.ghana.commoditymonitor.exception.ValidationException;
+import com.ghana.commoditymonitor.repository.MarketHealthLatestRepository;
 import com.ghana.commoditymonitor.security.UserPrincipal;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +25,10 @@ import java.math.RoundingMode;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,124 +37,217 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class MarketHealthScoreService {
 
-    private final MarketHealthScoreRepository healthScoreRepository;
-    private final MarketRepository marketRepository;
+    /** Days of approved prices whose spread scores stability. */
+    static final int STABILITY_WINDOW_DAYS = 90;
+
+    /** Days within which a commodity counts towards coverage. */
+    static final int COVERAGE_WINDOW_DAYS = 30;
+
+    /**
+     * Freshness, stability and coverage inputs of every market in one pass. Markets without
+     * approved prices still get a row. Only the stability window is read, so older partitions are
+     * pruned; a last price older than that scores no freshness anyway.
+     */
+    private static final String HEALTH_INPUTS_SQL = """
+        SELECT
+            m.id,
+            MAX(pr.recorded_date),
+            COALESCE(STDDEV(pr.price), 0),
+            COUNT(DISTINCT pr.commodity_id) FILTER (WHERE pr.recorded_date >= :coverageSince),
+            (SELECT COUNT(*) FROM commodities)
+        FROM markets m
+        LEFT JOIN price_records pr ON pr.market_id = m.id AND pr.status = 'APPROVED'
+            AND pr.recorded_date >= :stabilitySince
+        GROUP BY m.id
+        ORDER BY m.id
+        """;
+
+    private static final String INSERT_SCORE_SQL = """
+        INSERT INTO market_health_scores (market_id, score, data_freshness, price_stability, coverage, grade)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final List<String> GRADES = List.of("A", "B", "C", "D", "F");
+    private static final List<String> UNDERPERFORMING_GRADES = List.of("D", "F");
+
+    private final MarketHealthLatestRepository latestRepository;
     private final EntityManager entityManager;
-
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Raw inputs of one market's score. Markets without approved prices have no last date and
+     * zero for the rest.
+     */
+    public record MarketHealthInputs(Long marketId, LocalDate lastRecordedDate, double priceStdDev,
+                                     long commoditiesCovered, long totalCommodities) {}
+
+    /**
+     * Published when a read finds no score for a market.
+     */
+    public record MissingScore(Long marketId) {}
+
+    /**
+     * Scores every market from one grouped pass over {@code price_records} and inserts the scores
+     * with a single batched statement.
+     *
+     * @return the number of markets scored
+     */
     @Transactional
-    public MarketHealthScore computeScoreForMarket(Long marketId) {
-        log.info("Computing health score for market: {}", marketId);
-
-        Market market = marketRepository.findById(marketId)
-                .orElseThrow(() -> new ResourceNotFoundException("Market", "id", marketId));
-
-        BigDecimal dataFreshness = computeDataFreshness(marketId);
-        BigDecimal priceStability = computePriceStability(marketId);
-        BigDecimal coverage = computeCoverage(marketId);
-
-        BigDecimal totalScore = dataFreshness.multiply(new BigDecimal("0.40"))
-                .add(priceStability.multiply(new BigDecimal("0.35")))
-                .add(coverage.multiply(new BigDecimal("0.25")))
-                .setScale(2, RoundingMode.HALF_UP);
+    public int computeAllMarketScores() {
+        long startTime = System.currentTimeMillis();
 
-        String grade = calculateGrade(totalScore);
+        int scored = recordScores(findAllInputs());
 
-        MarketHealthScore healthScore = MarketHealthScore.builder()
-                .market(market)
-                .score(totalScore)
-                .dataFreshness(dataFreshness)
-                .priceStability(priceStability)
-                .coverage(coverage)
-                .grade(grade)
-                .build();
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Health score computed for {} markets in {}ms", scored, duration);
 
-        return healthScoreRepository.save(healthScore);
+        return scored;
     }
 
+    /**
+     * Scores the given inputs and inserts the scores with a single batched statement.
+     *
+     * @return the number of markets scored
+     */
     @Transactional
-    public List<MarketHealthScore> computeAllMarketScores() {
-        long startTime = System.currentTimeMillis();
-        
-        List<Long> marketIds = marketRepository.findAllIds();
-
-        List<MarketHealthScore> scores = new ArrayList<>();
-        for (Long marketId : marketIds) {
-            try {
-                scores.add(computeScoreForMarket(marketId));
-            } catch (ResourceNotFoundException e) {
-                log.warn("Market {} disappeared during recomputation — skipping.", marketId);
-            } finally {
-                entityManager.clear();
-            }
-        }
-
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Health score computed for {} markets in {}ms", scores.size(), duration);
-
-        return scores;
+    public int recordScores(List<MarketHealthInputs> inputs) {
+        List<MarketHealthScore> scores = inputs.stream()
+                .map(this::score)
+                .toList();
+
+        jdbcTemplate.batchUpdate(INSERT_SCORE_SQL, scores, scores.size(), (ps, score) -> {
+            ps.setLong(1, score.getMarket().getId());
+            ps.setBigDecimal(2, score.getScore());
+            ps.setBigDecimal(3, score.getDataFreshness());
+            ps.setBigDecimal(4, score.getPriceStability());
+            ps.setBigDecimal(5, score.getCoverage());
+            ps.setString(6, score.getGrade());
+        });
+        return scores.size();
     }
 
+    /**
+     * The market's latest score. A market that has none yet is scored in the background rather
+     * than on this request.
+     */
     public MarketHealthScoreDto getLatestScoreForMarket(Long marketId, UserPrincipal principal) {
-        log.debug("Fetching latest health score for market: {}", marketId);
+        return findLatestScoreForMarket(marketId, principal)
+                .orElseThrow(() -> new ResourceNotFoundException("MarketHealthScore", "marketId", marketId));
+    }
 
-        MarketHealthScore score = healthScoreRepository.findTopByMarketIdOrderByComputedAtDesc(marketId)
-                .orElseGet(() -> computeScoreForMarket(marketId));
+    public Optional<MarketHealthScoreDto> findLatestScoreForMarket(Long marketId, UserPrincipal principal) {
+        log.debug("Fetching latest health score for market: {}", marketId);
 
-        return mapToDto(score, principal);
+        Optional<MarketHealthLatest> latest = latestRepository.findById(marketId);
+        if (latest.isEmpty()) {
+            referenceDataCatalog.getMarket(marketId);
+            eventPublisher.publishEvent(new MissingScore(marketId));
+        }
+        return latest.map(score -> mapToDto(score, principal));
     }
 
     public List<MarketHealthScoreDto> getAllLatestScores(UserPrincipal principal) {
         log.debug("Fetching all latest health scores");
-        
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-        List<MarketHealthScore> scores = healthScoreRepository.findAllDistinctLatestScores(pageable).getContent();
 
-        return scores.stream()
-                .map(score -> mapToDto(score, principal))
+        return latestRepository.findAllByOrderByScoreDescMarketIdAsc(Pageable.unpaged()).stream()
+                .map(latest -> mapToDto(latest, principal))
                 .collect(Collectors.toList());
     }
 
     public List<MarketHealthScoreDto> getTopPerformingMarkets(int limit, UserPrincipal principal) {
         log.debug("Fetching top {} performing markets", limit);
-        
-        Pageable pageable = PageRequest.of(0, limit);
-        List<MarketHealthScore> scores = healthScoreRepository.findAllDistinctLatestScores(pageable).getContent();
 
-        return scores.stream()
-                .map(score -> mapToDto(score, principal))
+        return latestRepository.findAllByOrderByScoreDescMarketIdAsc(PageRequest.of(0, limit)).stream()
+                .map(latest -> mapToDto(latest, principal))
+                .collect(Collectors.toList());
+    }
+
+    public List<MarketHealthScoreDto> getBottomPerformingMarkets(int limit, UserPrincipal principal) {
+        log.debug("Fetching bottom {} performing markets", limit);
+
+        return latestRepository.findAllByOrderByScoreAscMarketIdAsc(PageRequest.of(0, limit)).stream()
+                .map(latest -> mapToDto(latest, principal))
                 .collect(Collectors.toList());
     }
 
     public List<MarketHealthScoreDto> getUnderperformingMarkets(int limit, UserPrincipal principal) {
         log.debug("Fetching underperforming markets");
-        
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-        List<MarketHealthScore> scores = healthScoreRepository.findAllDistinctLatestScores(pageable).getContent();
 
-        return scores.stream()
-                .filter(score -> "D".equals(score.getGrade()) || "F".equals(score.getGrade()))
-                .limit(limit)
-                .map(score -> mapToDto(score, principal))
+        return latestRepository.findByGradeInOrderByScoreDescMarketIdAsc(UNDERPERFORMING_GRADES, PageRequest.of(0, limit))
+                .stream()
+                .map(latest -> mapToDto(latest, principal))
                 .collect(Collectors.toList());
     }
 
-    private BigDecimal computeDataFreshness(Long marketId) {
-        String sql = """
-            SELECT MAX(recorded_date) 
-            FROM price_records 
-            WHERE market_id = :id AND status = 'APPROVED'
-            """;
+    public List<MarketHealthScoreDto> getMarketsByGrade(String grade, UserPrincipal principal) {
+        String normalized = grade.toUpperCase();
+        if (!GRADES.contains(normalized)) {
+            throw new ValidationException("Grade must be one of " + String.join(", ", GRADES));
+        }
+        log.debug("Fetching markets with grade {}", normalized);
+
+        return latestRepository.findByGradeInOrderByScoreDescMarketIdAsc(List.of(normalized), Pageable.unpaged())
+                .stream()
+                .map(latest -> mapToDto(latest, principal))
+                .collect(Collectors.toList());
+    }
 
-        Query query = entityManager.createNativeQuery(sql);
-        query.setParameter("id", marketId);
+    /**
+     * Number of markets currently holding each grade, with every grade present.
+     */
+    public Map<String, Long> getGradeHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        GRADES.forEach(grade -> histogram.put(grade, 0L));
+        for (Object[] row : latestRepository.countByGrade()) {
+            histogram.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return histogram;
+    }
 
-        Date maxDate = (Date) query.getSingleResult();
-        
-        if (maxDate == null) {
+    @SuppressWarnings("unchecked")
+    private List<MarketHealthInputs> findAllInputs() {
+        Query query = entityManager.createNativeQuery(HEALTH_INPUTS_SQL);
+        query.setParameter("stabilitySince", LocalDate.now().minusDays(STABILITY_WINDOW_DAYS));
+        query.setParameter("coverageSince", LocalDate.now().minusDays(COVERAGE_WINDOW_DAYS));
+
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new MarketHealthInputs(
+                        ((Number) row[0]).longValue(),
+                        row[1] != null ? ((Date) row[1]).toLocalDate() : null,
+                        ((Number) row[2]).doubleValue(),
+                        ((Number) row[3]).longValue(),
+                        ((Number) row[4]).longValue()))
+                .toList();
+    }
+
+    private MarketHealthScore score(MarketHealthInputs inputs) {
+        BigDecimal dataFreshness = scoreDataFreshness(inputs.lastRecordedDate());
+        BigDecimal priceStability = scorePriceStability(inputs.priceStdDev());
+        BigDecimal coverage = scoreCoverage(inputs.commoditiesCovered(), inputs.totalCommodities());
+
+        BigDecimal totalScore = dataFreshness.multiply(new BigDecimal("0.40"))
+                .add(priceStability.multiply(new BigDecimal("0.35")))
+                .add(coverage.multiply(new BigDecimal("0.25")))
+                .setScale(2, RoundingMode.HALF_UP);
+
+        return MarketHealthScore.builder()
+                .market(Market.builder().id(inputs.marketId()).build())
+                .score(totalScore)
+                .dataFreshness(dataFreshness)
+                .priceStability(priceStability)
+                .coverage(coverage)
+                .grade(gradeFor(totalScore))
+                .build();
+    }
+
+    private BigDecimal scoreDataFreshness(LocalDate mostRecent) {
+        if (mostRecent == null) {
             return BigDecimal.ZERO;
         }
 
-        LocalDate mostRecent = maxDate.toLocalDate();
         long daysSince = ChronoUnit.DAYS.between(mostRecent, LocalDate.now());
 
         if (daysSince <= 2) return new BigDecimal("100");
@@ -159,46 +258,20 @@ public class MarketHealthScoreService {
         return BigDecimal.ZERO;
     }
 
-    private BigDecimal computePriceStability(Long marketId) {
-        String sql = """
-            SELECT COALESCE(STDDEV(price), 0) 
-            FROM price_records
-            WHERE market_id = :id 
-              AND status = 'APPROVED'
-              AND recorded_date >= CURRENT_DATE - INTERVAL '90 days'
-            """;
-
-        Query query = entityManager.createNativeQuery(sql);
-        query.setParameter("id", marketId);
-
-        Number stdDev = (Number) query.getSingleResult();
-        double stdDevValue = stdDev != null ? stdDev.doubleValue() : 0.0;
-
-        double score = Math.max(0, 100 - (stdDevValue * 2.0));
+    private BigDecimal scorePriceStability(double stdDev) {
+        double score = Math.max(0, 100 - (stdDev * 2.0));
         return BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal computeCoverage(Long marketId) {
-        String sql = """
-            SELECT 
-                COUNT(DISTINCT pr.commodity_id)::FLOAT / 
-                NULLIF((SELECT COUNT(*) FROM commodities), 0) * 100
-            FROM price_records pr
-            WHERE pr.market_id = :id
-              AND pr.status = 'APPROVED'
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL '30 days'
-            """;
-
-        Query query = entityManager.createNativeQuery(sql);
-        query.setParameter("id", marketId);
-
-        Number coverageValue = (Number) query.getSingleResult();
-        double coverage = coverageValue != null ? coverageValue.doubleValue() : 0.0;
-
+    private BigDecimal scoreCoverage(long commoditiesCovered, long totalCommodities) {
+        if (totalCommodities == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        double coverage = (double) commoditiesCovered / totalCommodities * 100;
         return BigDecimal.valueOf(coverage).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private String calculateGrade(BigDecimal score) {
+    static String gradeFor(BigDecimal score) {
         double scoreValue = score.doubleValue();
         
         if (scoreValue >= 80) return "A";
@@ -208,10 +281,11 @@ public class MarketHealthScoreService {
         return "F";
     }
 
-    private MarketHealthScoreDto mapToDto(MarketHealthScore score, UserPrincipal principal) {
+    private MarketHealthScoreDto mapToDto(MarketHealthLatest latest, UserPrincipal principal) {
+        MarketRef market = referenceDataCatalog.getMarket(latest.getMarketId());
         if (principal == null) {
-            return MarketHealthScoreDto.forGuest(score);
+            return MarketHealthScoreDto.forGuest(latest, market);
         }
-        return MarketHealthScoreDto.forAuthenticated(score);
+        return MarketHealthScoreDto.forAuthenticated(latest, market);
     }
 }
@@ -0,0 +1,262 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.service.MarketHealthScoreService.MarketHealthInputs;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static com.ghana.commoditymonitor.service.MarketHealthScoreService.COVERAGE_WINDOW_DAYS;
+import static com.ghana.commoditymonitor.service.MarketHealthScoreService.STABILITY_WINDOW_DAYS;
+import static com.ghana.commoditymonitor.util.TransactionHooks.afterCommit;
+
+/**
+ * Running health inputs per market, so a market's score is republished within seconds of an
+ * approval instead of at the nightly refresh.
+ * <p>
+ * Each market keeps its latest recorded date, the latest date of each commodity it reports and,
+ * per recorded day, a Welford accumulator of its prices. The stability window's standard deviation
+ * merges the daily accumulators, so old days drop out without rescanning prices. Approvals mark
+ * the market dirty and every dirty market is scored in one batch {@code app.health.debounce} after
+ * the first of them, so a burst of approvals yields one score per market. Edits and deletions of
+ * approved records are not tracked; the nightly refresh rebuilds the state from the database.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarketHealthTracker {
+
+    private final MarketHealthScoreService healthScoreService;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.health.debounce:5s}")
+    private Duration debounce;
+
+    private final Map<Long, MarketState> markets = new HashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    /** Updates applied while a rebuild is reading; replayed onto the rebuilt state. */
+    private List<Consumer<Map<Long, MarketState>>> replayLog;
+
+    /**
+     * Count, mean and sum of squared deviations of a set of prices (Welford), mergeable with
+     * another set's (Chan et al.).
+     */
+    private static final class Welford {
+
+        private long count;
+        private double mean;
+        private double m2;
+
+        void add(double price) {
+            count++;
+            double delta = price - mean;
+            mean += delta / count;
+            m2 += delta * (price - mean);
+        }
+
+        void merge(Welford other) {
+            if (other.count == 0) {
+                return;
+            }
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * count * other.count / total;
+            count = total;
+        }
+
+        /** Sample standard deviation, zero below two prices as with {@code COALESCE(STDDEV(...), 0)}. */
+        double stdDev() {
+            return count < 2 ? 0 : Math.sqrt(m2 / (count - 1));
+        }
+    }
+
+    private static final class MarketState {
+
+        private LocalDate lastRecordedDate;
+        private final Map<Long, LocalDate> commodityLastDates = new HashMap<>();
+        private final NavigableMap<LocalDate, Welford> dailyPrices = new TreeMap<>();
+
+        void add(Long commodityId, LocalDate recordedDate, double price) {
+            if (lastRecordedDate == null || recordedDate.isAfter(lastRecordedDate)) {
+                lastRecordedDate = recordedDate;
+            }
+            commodityLastDates.merge(commodityId, recordedDate, (a, b) -> a.isAfter(b) ? a : b);
+            if (!recordedDate.isBefore(LocalDate.now().minusDays(STABILITY_WINDOW_DAYS))) {
+                dailyPrices.computeIfAbsent(recordedDate, day -> new Welford()).add(price);
+            }
+        }
+
+        MarketHealthInputs inputs(Long marketId, long totalCommodities) {
+            LocalDate today = LocalDate.now();
+            dailyPrices.headMap(today.minusDays(STABILITY_WINDOW_DAYS)).clear();
+
+            Welford window = new Welford();
+            dailyPrices.values().forEach(window::merge);
+            LocalDate coverageSince = today.minusDays(COVERAGE_WINDOW_DAYS);
+            long covered = commodityLastDates.values().stream()
+                    .filter(date -> !date.isBefore(coverageSince))
+                    .count();
+            return new MarketHealthInputs(marketId, lastRecordedDate, window.stdDev(), covered, totalCommodities);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "market-health-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Folds an approved price into its market once the current transaction commits, and schedules
+     * the market to be rescored.
+     */
+    public void approved(Long marketId, Long commodityId, LocalDate recordedDate, BigDecimal price) {
+        afterCommit(() -> {
+            update(state -> state.computeIfAbsent(marketId, id -> new MarketState())
+                    .add(commodityId, recordedDate, price.doubleValue()));
+            markDirty(marketId);
+        });
+    }
+
+    /**
+     * Scores a market that a read found without a score.
+     */
+    @EventListener
+    public void onMissingScore(MarketHealthScoreService.MissingScore event) {
+        markDirty(event.marketId());
+    }
+
+    /**
+     * Reloads every market's state from the approved prices in one pass per kind of input.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        synchronized (this) {
+            replayLog = new ArrayList<>();
+        }
+
+        // Nothing older than the stability window scores freshness or coverage, so neither query
+        // reads it; a market left without state scores as one with only older prices
+        Date since = Date.valueOf(LocalDate.now().minusDays(STABILITY_WINDOW_DAYS));
+        Map<Long, MarketState> fresh = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT market_id, commodity_id, MAX(recorded_date) AS last_date
+                FROM price_records
+                WHERE status = 'APPROVED' AND recorded_date >= ?
+                GROUP BY market_id, commodity_id
+                """,
+            rs -> {
+                MarketState state = fresh.computeIfAbsent(rs.getLong("market_id"), id -> new MarketState());
+                LocalDate lastDate = rs.getDate("last_date").toLocalDate();
+                state.commodityLastDates.put(rs.getLong("commodity_id"), lastDate);
+                if (state.lastRecordedDate == null || lastDate.isAfter(state.lastRecordedDate)) {
+                    state.lastRecordedDate = lastDate;
+                }
+            },
+            since);
+        jdbcTemplate.query("""
+                SELECT market_id, recorded_date, COUNT(*) AS prices, AVG(price) AS mean,
+                       COALESCE(VAR_SAMP(price), 0) * (COUNT(*) - 1) AS m2
+                FROM price_records
+                WHERE status = 'APPROVED' AND recorded_date >= ?
+                GROUP BY market_id, recorded_date
+                """,
+            rs -> {
+                Welford day = new Welford();
+                day.count = rs.getLong("prices");
+                day.mean = rs.getDouble("mean");
+                day.m2 = rs.getDouble("m2");
+                fresh.computeIfAbsent(rs.getLong("market_id"), id -> new MarketState())
+                        .dailyPrices.put(rs.getDate("recorded_date").toLocalDate(), day);
+            },
+            since);
+
+        int replayed;
+        synchronized (this) {
+            markets.clear();
+            markets.putAll(fresh);
+            replayed = replayLog.size();
+            replayLog.forEach(op -> op.accept(markets));
+            replayLog = null;
+        }
+        log.info("Market health state rebuilt for {} markets in {}ms ({} updates replayed)",
+                fresh.size(), System.currentTimeMillis() - startTime, replayed);
+    }
+
+    private synchronized void update(Consumer<Map<Long, MarketState>> op) {
+        op.accept(markets);
+        if (replayLog != null) {
+            replayLog.add(op);
+        }
+    }
+
+    private void markDirty(Long marketId) {
+        dirty.add(marketId);
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        // Cleared first, so a market marked while this batch is written schedules the next one
+        flushScheduled.set(false);
+        List<Long> marketIds = new ArrayList<>(dirty);
+        dirty.removeAll(marketIds);
+        if (marketIds.isEmpty()) {
+            return;
+        }
+
+        long totalCommodities = referenceDataCatalog.commodityCount();
+        List<MarketHealthInputs> inputs;
+        synchronized (this) {
+            inputs = marketIds.stream()
+                    .map(id -> markets.getOrDefault(id, new MarketState()).inputs(id, totalCommodities))
+                    .toList();
+        }
+
+        try {
+            healthScoreService.recordScores(inputs);
+            log.debug("Health scores republished for markets {}", marketIds);
+        } catch (Exception e) {
+            log.error("Failed to republish health scores for markets {}", marketIds, e);
+        }
+    }
+}
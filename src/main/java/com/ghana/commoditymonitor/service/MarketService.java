@@ -26,6 +26,7 @@ public class MarketService {
 
     private final MarketRepository marketRepository;
     private final CityRepository cityRepository;
+    private final ReferenceDataCatalog referenceDataCatalog;
 
     @Transactional
     public MarketResponseDto createMarket(MarketRequestDto request) {
@@ -40,6 +41,7 @@ public class MarketService {
                 .build();
 
         Market savedMarket = marketRepository.save(market);
+        referenceDataCatalog.invalidateMarkets();
         return mapToResponse(savedMarket);
     }
 
@@ -77,6 +79,7 @@ public class MarketService {
         market.setCity(city);
 
         Market updatedMarket = marketRepository.save(market);
+        referenceDataCatalog.invalidateMarkets();
         return mapToResponse(updatedMarket);
     }
 
@@ -87,6 +90,7 @@ public class MarketService {
             throw new ResourceNotFoundException("Market", "id", id);
         }
         marketRepository.deleteById(id);
+        referenceDataCatalog.invalidateMarkets();
     }
 
     private MarketResponseDto mapToResponse(Market market) {
@@ -0,0 +1,75 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.projection.PriceRecordExportView;
+import com.ghana.commoditymonitor.util.P2QuantileEstimator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per commodity×month price statistics gathered in one pass as export rows are written.
+ * <p>
+ * Each group holds a pesewa sum, count, min, max and a P² median estimate, so memory grows with
+ * the number of groups rather than the number of rows.
+ * </p>
+ */
+class MonthlySummaryAccumulator {
+
+    record Key(String commodity, YearMonth month) {}
+
+    static final class Stats {
+        private long sumPesewas;
+        private long count;
+        private long minPesewas = Long.MAX_VALUE;
+        private long maxPesewas = Long.MIN_VALUE;
+        private final P2QuantileEstimator median = P2QuantileEstimator.median();
+
+        private void add(long pesewas) {
+            sumPesewas += pesewas;
+            count++;
+            minPesewas = Math.min(minPesewas, pesewas);
+            maxPesewas = Math.max(maxPesewas, pesewas);
+            median.add(pesewas);
+        }
+
+        long count() {
+            return count;
+        }
+
+        BigDecimal average() {
+            return BigDecimal.valueOf(sumPesewas, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal min() {
+            return BigDecimal.valueOf(minPesewas, 2);
+        }
+
+        BigDecimal max() {
+            return BigDecimal.valueOf(maxPesewas, 2);
+        }
+
+        BigDecimal median() {
+            return BigDecimal.valueOf(median.getQuantile()).movePointLeft(2).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    private final Map<Key, Stats> groups = new TreeMap<>(
+        Comparator.comparing(Key::commodity).thenComparing(Key::month));
+
+    void add(PriceRecordExportView record) {
+        long pesewas = record.price().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        groups.computeIfAbsent(new Key(record.commodityName(), YearMonth.from(record.recordedDate())), k -> new Stats())
+            .add(pesewas);
+    }
+
+    /**
+     * Groups ordered by commodity, then month.
+     */
+    Map<Key, Stats> groups() {
+        return groups;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ghana.commoditymonitor.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps monthly {@code price_records} partitions created ahead of the data that will land in them.
+ * Rows for a month without a partition fall into {@code price_records_default}; the database
+ * function {@code ensure_price_records_partition} moves them out when the month is created.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartitionMaintenanceService {
+
+    private final EntityManager entityManager;
+
+    @Value("${app.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public int ensureFuturePartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            if (ensurePartition(month.plusMonths(i))) {
+                created++;
+            }
+        }
+        if (created > 0) {
+            log.info("Created {} price_records partitions up to {}", created, month.plusMonths(monthsAhead));
+        }
+        return created;
+    }
+
+    private boolean ensurePartition(LocalDate month) {
+        Object created = entityManager.createNativeQuery("SELECT ensure_price_records_partition(:month)")
+                .setParameter("month", month)
+                .getSingleResult();
+        return Boolean.TRUE.equals(created);
+    }
+}
@@ -0,0 +1,249 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.projection.PendingSubmissionView;
+import com.ghana.commoditymonitor.enums.PendingQueueSort;
+import com.ghana.commoditymonitor.repository.PriceRecordRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static com.ghana.commoditymonitor.util.TransactionHooks.afterCommit;
+
+/**
+ * In-memory index of price records awaiting review.
+ * <p>
+ * The queue is rebuilt from the {@code status = 'PENDING'} partial index at startup and nightly,
+ * and kept current in between by {@link PriceRecordService}, which reports submissions and
+ * resolutions once their transaction commits. Entries are held in two orderings (age and outlier
+ * score) so both review views page without sorting, and the total count is O(1).
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingReviewQueue {
+
+    private static final int OUTLIER_BASELINE_DAYS = 90;
+
+    private static final Comparator<Entry> BY_AGE = Comparator
+            .comparing((Entry e) -> e.view().createdAt())
+            .thenComparing(e -> e.view().id());
+
+    private static final Comparator<Entry> BY_OUTLIER = Comparator
+            .comparingDouble(Entry::outlierScore).reversed()
+            .thenComparing(BY_AGE);
+
+    private final PriceRecordRepository priceRecordRepository;
+    private final EntityManager entityManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> byId = new HashMap<>();
+    private final NavigableSet<Entry> byAge = new TreeSet<>(BY_AGE);
+    private final NavigableSet<Entry> byOutlier = new TreeSet<>(BY_OUTLIER);
+    private Map<Long, PriceStats> baselines = Map.of();
+
+    /** Mutations applied while a rebuild is reading; replayed onto the rebuilt index. */
+    private List<Consumer<PendingReviewQueue>> replayLog;
+
+    /**
+     * A queued submission together with its distance, in standard deviations, from the recent
+     * approved mean price of its commodity.
+     */
+    public record Entry(PendingSubmissionView view, double outlierScore) {}
+
+    private record PriceStats(double mean, double stddev) {}
+
+    /**
+     * Pending-queue filter; null fields match everything.
+     */
+    public record Filter(Long submittedById, Long cityId, Long commodityId) {
+
+        boolean matches(PendingSubmissionView view) {
+            return (submittedById == null || submittedById.equals(view.submittedById()))
+                    && (cityId == null || cityId.equals(view.cityId()))
+                    && (commodityId == null || commodityId.equals(view.commodityId()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            replayLog = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, PriceStats> freshBaselines = loadBaselines();
+        List<PendingSubmissionView> pending = priceRecordRepository.findAllPendingViews();
+
+        lock.writeLock().lock();
+        try {
+            baselines = freshBaselines;
+            byId.clear();
+            byAge.clear();
+            byOutlier.clear();
+            pending.forEach(this::put);
+            replayLog.forEach(op -> op.accept(this));
+            replayLog = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Pending review queue rebuilt with {} submissions in {}ms",
+                pending.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Adds or re-scores a pending submission once the current transaction commits.
+     */
+    public void submitted(PendingSubmissionView view) {
+        afterCommit(() -> mutate(queue -> queue.put(view)));
+    }
+
+    /**
+     * Drops a submission that was reviewed or deleted once the current transaction commits.
+     */
+    public void resolved(Long priceRecordId) {
+        afterCommit(() -> mutate(queue -> queue.remove(priceRecordId)));
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Entry> all() {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(byAge);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Submissions created before {@code threshold}, oldest first.
+     */
+    public List<Entry> olderThan(OffsetDateTime threshold) {
+        lock.readLock().lock();
+        try {
+            List<Entry> result = new ArrayList<>();
+            for (Entry entry : byAge) {
+                if (!entry.view().createdAt().isBefore(threshold)) {
+                    break;
+                }
+                result.add(entry);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Page<Entry> page(Filter filter, PendingQueueSort sort, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> ordered = sort == PendingQueueSort.OUTLIER ? byOutlier : byAge;
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+
+            List<Entry> content = new ArrayList<>(Math.min(limit, byId.size()));
+            long matched = 0;
+            for (Entry entry : ordered) {
+                if (!filter.matches(entry.view())) {
+                    continue;
+                }
+                if (matched >= offset && content.size() < limit) {
+                    content.add(entry);
+                }
+                matched++;
+            }
+            return new PageImpl<>(content, pageable, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void mutate(Consumer<PendingReviewQueue> op) {
+        lock.writeLock().lock();
+        try {
+            op.accept(this);
+            if (replayLog != null) {
+                replayLog.add(op);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(PendingSubmissionView view) {
+        remove(view.id());
+        Entry entry = new Entry(view, outlierScore(view));
+        byId.put(view.id(), entry);
+        byAge.add(entry);
+        byOutlier.add(entry);
+    }
+
+    private void remove(Long id) {
+        Entry existing = byId.remove(id);
+        if (existing != null) {
+            byAge.remove(existing);
+            byOutlier.remove(existing);
+        }
+    }
+
+    private double outlierScore(PendingSubmissionView view) {
+        PriceStats stats = baselines.get(view.commodityId());
+        if (stats == null || stats.stddev() <= 0 || view.price() == null) {
+            return 0;
+        }
+        return Math.abs(view.price().doubleValue() - stats.mean()) / stats.stddev();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, PriceStats> loadBaselines() {
+        String sql = """
+            SELECT commodity_id, AVG(price), STDDEV_SAMP(price)
+            FROM price_records
+            WHERE status = 'APPROVED'
+              AND recorded_date >= :since
+            GROUP BY commodity_id
+            """;
+
+        List<Object[]> rows = entityManager.createNativeQuery(sql)
+                .setParameter("since", LocalDate.now().minusDays(OUTLIER_BASELINE_DAYS))
+                .getResultList();
+
+        Map<Long, PriceStats> result = new HashMap<>();
+        for (Object[] row : rows) {
+            double stddev = row[2] != null ? ((Number) row[2]).doubleValue() : 0;
+            result.put(((Number) row[0]).longValue(), new PriceStats(((Number) row[1]).doubleValue(), stddev));
+        }
+        return Map.copyOf(result);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.projection.PriceRecordExportView;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * Maps export rows onto a typed Parquet schema: prices as DECIMAL(12,2) matching the database
+ * column, dates as DATE, text as UTF-8 strings (dictionary-encoded by the writer).
+ */
+class PriceRecordParquetWriteSupport extends WriteSupport<PriceRecordExportView> {
+
+    private static final int PRICE_PRECISION = 12;
+    private static final int PRICE_SCALE = 2;
+
+    static final MessageType SCHEMA = Types.buildMessage()
+        .required(PrimitiveTypeName.INT64).named("id")
+        .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("commodity")
+        .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("category")
+        .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("unit")
+        .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("market")
+        .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("city")
+        .required(PrimitiveTypeName.INT64)
+            .as(LogicalTypeAnnotation.decimalType(PRICE_SCALE, PRICE_PRECISION)).named("price_ghs")
+        .required(PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.dateType()).named("recorded_date")
+        .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("source")
+        .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("submitted_by")
+        .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("status")
+        .named("price_record");
+
+    private RecordConsumer consumer;
+
+    @Override
+    public WriteContext init(ParquetConfiguration configuration) {
+        return new WriteContext(SCHEMA, Map.of());
+    }
+
+    /**
+     * Still abstract in {@link WriteSupport}; never called, as the writer is built with a
+     * {@link ParquetConfiguration}.
+     */
+    @Override
+    @Deprecated
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(SCHEMA, Map.of());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.consumer = recordConsumer;
+    }
+
+    @Override
+    public void write(PriceRecordExportView record) {
+        consumer.startMessage();
+        writeLong(0, "id", record.id());
+        writeString(1, "commodity", record.commodityName());
+        writeString(2, "category", record.category());
+        writeString(3, "unit", record.unit());
+        writeString(4, "market", record.marketName());
+        writeString(5, "city", record.cityName());
+        writeLong(6, "price_ghs", record.price().setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+
+        consumer.startField("recorded_date", 7);
+        consumer.addInteger((int) record.recordedDate().toEpochDay());
+        consumer.endField("recorded_date", 7);
+
+        writeString(8, "source", record.source());
+        writeString(9, "submitted_by", record.submittedByUsername());
+        writeString(10, "status", record.status().name());
+        consumer.endMessage();
+    }
+
+    private void writeLong(int index, String field, long value) {
+        consumer.startField(field, index);
+        consumer.addLong(value);
+        consumer.endField(field, index);
+    }
+
+    private void writeString(int index, String field, String value) {
+        // Optional fields are simply omitted when null
+        if (value == null) {
+            return;
+        }
+        consumer.startField(field, index);
+        consumer.addBinary(Binary.fromString(value));
+        consumer.endField(field, index);
+    }
+}
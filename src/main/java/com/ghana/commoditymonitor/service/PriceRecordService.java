@@ -1,10 +1,19 @@
 package com.ghana.commoditymonitor.service;
 
+import com.ghana.commoditymonitor.dto.projection.AuditEvent;
+import com.ghana.commoditymonitor.dto.projection.CommodityRef;
+import com.ghana.commoditymonitor.dto.projection.MarketRef;
+import com.ghana.commoditymonitor.dto.projection.PendingSubmissionView;
+import com.ghana.commoditymonitor.dto.projection.PriceRecordAuditView;
+import com.ghana.commoditymonitor.dto.projection.PriceRecordView;
+import com.ghana.commoditymonitor.dto.projection.UserRef;
 import com.ghana.commoditymonitor.dto.request.PriceRecordApprovalDto;
 import com.ghana.commoditymonitor.dto.request.PriceRecordRequestDto;
 import com.ghana.commoditymonitor.dto.response.PendingSubmissionResponseDto;
+import com.ghana.commoditymonitor.dto.response.PriceRecordAuditResponseDto;
 import com.ghana.commoditymonitor.dto.response.PriceRecordResponseDto;
 import com.ghana.commoditymonitor.entity.*;
+import com.ghana.commoditymonitor.enums.PendingQueueSort;
 import com.ghana.commoditymonitor.enums.PriceRecordStatus;
 import com.ghana.commoditymonitor.exception.BusinessRuleException;
 import com.ghana.commoditymonitor.exception.ResourceNotFoundException;
@@ -19,8 +28,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,20 +47,20 @@ public class PriceRecordService {
     private final MarketRepository marketRepository;
     private final UserRepository userRepository;
     private final PriceRecordAuditRepository auditRepository;
+    private final AuditTrailAppender auditTrailAppender;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final PendingReviewQueue pendingReviewQueue;
+    private final MarketHealthTracker marketHealthTracker;
 
     @Transactional
     public PriceRecordResponseDto createPriceRecord(PriceRecordRequestDto request, UserPrincipal submitter) {
         log.info("Creating new price record for commodity: {} in market: {} by user: {}", 
                  request.commodityId(), request.marketId(), submitter.username());
 
-        Commodity commodity = commodityRepository.findById(request.commodityId())
-                .orElseThrow(() -> new ResourceNotFoundException("Commodity", "id", request.commodityId()));
-
-        Market market = marketRepository.findById(request.marketId())
-                .orElseThrow(() -> new ResourceNotFoundException("Market", "id", request.marketId()));
-
-        User submitterUser = userRepository.findById(submitter.id())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", submitter.id()));
+        // Existence checks come from the catalog; the associations only need id-only references
+        Commodity commodity = commodityRepository.getReferenceById(referenceDataCatalog.getCommodity(request.commodityId()).id());
+        Market market = marketRepository.getReferenceById(referenceDataCatalog.getMarket(request.marketId()).id());
+        User submitterUser = userRepository.getReferenceById(referenceDataCatalog.getUser(submitter.id()).id());
 
         PriceRecord priceRecord = PriceRecord.builder()
                 .commodity(commodity)
@@ -71,13 +83,15 @@ public class PriceRecordService {
 
         PriceRecord savedRecord = priceRecordRepository.save(priceRecord);
 
-        PriceRecordAudit audit = PriceRecordAudit.builder()
-                .priceRecord(savedRecord)
-                .action("SUBMITTED")
-                .performedBy(submitterUser)
-                .newPrice(request.price())
-                .build();
-        auditRepository.save(audit);
+        auditTrailAppender.append(new AuditEvent(
+                savedRecord.getId(), "SUBMITTED", submitter.id(), null, request.price(), null, OffsetDateTime.now()));
+
+        if (savedRecord.getStatus() == PriceRecordStatus.PENDING) {
+            pendingReviewQueue.submitted(toPendingView(savedRecord));
+        } else if (savedRecord.getStatus() == PriceRecordStatus.APPROVED) {
+            marketHealthTracker.approved(request.marketId(), request.commodityId(),
+                    request.recordedDate(), request.price());
+        }
 
         return mapToResponse(savedRecord);
     }
@@ -93,20 +107,15 @@ public class PriceRecordService {
             throw new BusinessRuleException("Only PENDING records can be reviewed");
         }
 
-        User reviewerUser = userRepository.findById(reviewer.id())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", reviewer.id()));
+        User reviewerUser = userRepository.getReferenceById(referenceDataCatalog.getUser(reviewer.id()).id());
 
         if (dto.approved()) {
             priceRecord.setStatus(PriceRecordStatus.APPROVED);
             priceRecord.setReviewedBy(reviewerUser);
             priceRecord.setReviewedAt(OffsetDateTime.now());
 
-            PriceRecordAudit audit = PriceRecordAudit.builder()
-                    .priceRecord(priceRecord)
-                    .action("APPROVED")
-                    .performedBy(reviewerUser)
-                    .build();
-            auditRepository.save(audit);
+            auditTrailAppender.append(new AuditEvent(
+                    id, "APPROVED", reviewer.id(), null, null, null, OffsetDateTime.now()));
         } else {
             if (!StringUtils.hasText(dto.rejectionReason())) {
                 throw new ValidationException("Rejection reason is required when rejecting a price record");
@@ -117,60 +126,83 @@ public class PriceRecordService {
             priceRecord.setReviewedBy(reviewerUser);
             priceRecord.setReviewedAt(OffsetDateTime.now());
 
-            PriceRecordAudit audit = PriceRecordAudit.builder()
-                    .priceRecord(priceRecord)
-                    .action("REJECTED")
-                    .performedBy(reviewerUser)
-                    .note(dto.rejectionReason())
-                    .build();
-            auditRepository.save(audit);
+            auditTrailAppender.append(new AuditEvent(
+                    id, "REJECTED", reviewer.id(), null, null, dto.rejectionReason(), OffsetDateTime.now()));
         }
 
         PriceRecord updatedRecord = priceRecordRepository.save(priceRecord);
+        pendingReviewQueue.resolved(id);
+        if (updatedRecord.getStatus() == PriceRecordStatus.APPROVED) {
+            marketHealthTracker.approved(updatedRecord.getMarket().getId(), updatedRecord.getCommodity().getId(),
+                    updatedRecord.getRecordedDate(), updatedRecord.getPrice());
+        }
         return mapToResponse(updatedRecord);
     }
 
     public List<PendingSubmissionResponseDto> getPendingRecords() {
         log.debug("Fetching all pending price records");
-        List<PriceRecord> pendingRecords = priceRecordRepository.findByStatus(PriceRecordStatus.PENDING);
-        
-        return pendingRecords.stream()
-                .map(this::mapToPendingResponse)
+        OffsetDateTime now = OffsetDateTime.now();
+
+        return pendingReviewQueue.all().stream()
+                .map(entry -> mapToPendingResponse(entry, now))
                 .collect(Collectors.toList());
     }
 
+    public Page<PendingSubmissionResponseDto> getPendingQueue(PendingReviewQueue.Filter filter,
+                                                              PendingQueueSort sort, Pageable pageable) {
+        log.debug("Fetching pending queue page {} sorted by {} with {}", pageable, sort, filter);
+        OffsetDateTime now = OffsetDateTime.now();
+
+        return pendingReviewQueue.page(filter, sort, pageable)
+                .map(entry -> mapToPendingResponse(entry, now));
+    }
+
+    public List<PriceRecordAuditResponseDto> getAuditTrail(Long id) {
+        log.debug("Fetching audit trail for price record: {}", id);
+        if (!priceRecordRepository.existsById(id)) {
+            throw new ResourceNotFoundException("PriceRecord", "id", id);
+        }
+
+        AuditTrailAppender.History history = auditTrailAppender.history(id);
+        List<PriceRecordAuditResponseDto> trail = new ArrayList<>(history.persisted().size() + history.unflushed().size());
+        // Unflushed events are the newest, so they lead the newest-first listing
+        for (int i = history.unflushed().size() - 1; i >= 0; i--) {
+            trail.add(mapToAuditResponse(history.unflushed().get(i)));
+        }
+        history.persisted().forEach(view -> trail.add(mapToAuditResponse(view)));
+        return trail;
+    }
+
     public List<PriceRecordResponseDto> getMySubmissions(Long userId) {
         log.debug("Fetching submissions for user: {}", userId);
-        List<PriceRecord> submissions = priceRecordRepository.findBySubmittedByIdAndStatus(userId, PriceRecordStatus.PENDING);
-        
-        return submissions.stream()
+        return priceRecordRepository.findViewsBySubmittedByIdAndStatus(userId, PriceRecordStatus.PENDING).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     public PriceRecordResponseDto getPriceRecordById(Long id) {
         log.debug("Fetching price record with id: {}", id);
-        return priceRecordRepository.findById(id)
+        return priceRecordRepository.findViewById(id)
                 .map(this::mapToResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("PriceRecord", "id", id));
     }
 
     public Page<PriceRecordResponseDto> getAllPriceRecords(Pageable pageable) {
         log.debug("Fetching all price records with pagination");
-        return priceRecordRepository.findAll(pageable)
+        return priceRecordRepository.findAllViews(pageable)
                 .map(this::mapToResponse);
     }
 
     public List<PriceRecordResponseDto> getPriceRecordsByCommodity(Long commodityId) {
         log.debug("Fetching price records for commodity id: {}", commodityId);
-        return priceRecordRepository.findByCommodityId(commodityId).stream()
+        return priceRecordRepository.findViewsByCommodityId(commodityId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     public List<PriceRecordResponseDto> getPriceRecordsByMarket(Long marketId) {
         log.debug("Fetching price records for market id: {}", marketId);
-        return priceRecordRepository.findByMarketId(marketId).stream()
+        return priceRecordRepository.findViewsByMarketId(marketId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -181,11 +213,8 @@ public class PriceRecordService {
         PriceRecord priceRecord = priceRecordRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PriceRecord", "id", id));
 
-        Commodity commodity = commodityRepository.findById(request.commodityId())
-                .orElseThrow(() -> new ResourceNotFoundException("Commodity", "id", request.commodityId()));
-
-        Market market = marketRepository.findById(request.marketId())
-                .orElseThrow(() -> new ResourceNotFoundException("Market", "id", request.marketId()));
+        Commodity commodity = commodityRepository.getReferenceById(referenceDataCatalog.getCommodity(request.commodityId()).id());
+        Market market = marketRepository.getReferenceById(referenceDataCatalog.getMarket(request.marketId()).id());
 
         priceRecord.setCommodity(commodity);
         priceRecord.setMarket(market);
@@ -194,6 +223,9 @@ public class PriceRecordService {
         priceRecord.setSource(request.source());
 
         PriceRecord updatedRecord = priceRecordRepository.save(priceRecord);
+        if (updatedRecord.getStatus() == PriceRecordStatus.PENDING) {
+            pendingReviewQueue.submitted(toPendingView(updatedRecord));
+        }
         return mapToResponse(updatedRecord);
     }
 
@@ -203,46 +235,131 @@ public class PriceRecordService {
         if (!priceRecordRepository.existsById(id)) {
             throw new ResourceNotFoundException("PriceRecord", "id", id);
         }
+        // price_records is partitioned, so audits no longer cascade through a foreign key
+        auditRepository.deleteByPriceRecordId(id);
         priceRecordRepository.deleteById(id);
+        pendingReviewQueue.resolved(id);
     }
 
+    /**
+     * Maps a written entity using catalog names, so the lazy associations are never initialized.
+     */
     private PriceRecordResponseDto mapToResponse(PriceRecord record) {
+        CommodityRef commodity = referenceDataCatalog.getCommodity(record.getCommodity().getId());
+        MarketRef market = referenceDataCatalog.getMarket(record.getMarket().getId());
+
         return PriceRecordResponseDto.builder()
                 .id(record.getId())
-                .commodityId(record.getCommodity().getId())
-                .commodityName(record.getCommodity().getName())
-                .marketId(record.getMarket().getId())
-                .marketName(record.getMarket().getName())
-                .cityName(record.getMarket().getCity().getName())
+                .commodityId(commodity.id())
+                .commodityName(commodity.name())
+                .marketId(market.id())
+                .marketName(market.name())
+                .cityName(market.cityName())
                 .price(record.getPrice())
                 .recordedDate(record.getRecordedDate())
                 .source(record.getSource())
                 .status(record.getStatus() != null ? record.getStatus().name() : null)
-                .submittedByUsername(record.getSubmittedBy() != null ? record.getSubmittedBy().getUsername() : null)
-                .reviewedByUsername(record.getReviewedBy() != null ? record.getReviewedBy().getUsername() : null)
+                .submittedByUsername(usernameOf(record.getSubmittedBy()))
+                .reviewedByUsername(usernameOf(record.getReviewedBy()))
                 .reviewedAt(record.getReviewedAt())
                 .rejectionReason(record.getRejectionReason())
                 .createdAt(record.getCreatedAt())
                 .build();
     }
 
-    private PendingSubmissionResponseDto mapToPendingResponse(PriceRecord record) {
-        long daysPending = ChronoUnit.DAYS.between(record.getCreatedAt(), OffsetDateTime.now());
-        
+    private String usernameOf(User user) {
+        return user != null ? referenceDataCatalog.findUser(user.getId()).map(UserRef::username).orElse(null) : null;
+    }
+
+    private PriceRecordResponseDto mapToResponse(PriceRecordView view) {
+        return PriceRecordResponseDto.builder()
+                .id(view.id())
+                .commodityId(view.commodityId())
+                .commodityName(view.commodityName())
+                .marketId(view.marketId())
+                .marketName(view.marketName())
+                .cityName(view.cityName())
+                .price(view.price())
+                .recordedDate(view.recordedDate())
+                .source(view.source())
+                .status(view.status() != null ? view.status().name() : null)
+                .submittedByUsername(view.submittedByUsername())
+                .reviewedByUsername(view.reviewedByUsername())
+                .reviewedAt(view.reviewedAt())
+                .rejectionReason(view.rejectionReason())
+                .createdAt(view.createdAt())
+                .build();
+    }
+
+    private PriceRecordAuditResponseDto mapToAuditResponse(PriceRecordAuditView view) {
+        return PriceRecordAuditResponseDto.builder()
+                .id(view.id())
+                .priceRecordId(view.priceRecordId())
+                .action(view.action())
+                .performedByUsername(view.performedByUsername())
+                .oldPrice(view.oldPrice())
+                .newPrice(view.newPrice())
+                .note(view.note())
+                .performedAt(view.performedAt())
+                .persisted(true)
+                .build();
+    }
+
+    private PriceRecordAuditResponseDto mapToAuditResponse(AuditEvent event) {
+        return PriceRecordAuditResponseDto.builder()
+                .priceRecordId(event.priceRecordId())
+                .action(event.action())
+                .performedByUsername(referenceDataCatalog.findUser(event.performedById()).map(UserRef::username).orElse(null))
+                .oldPrice(event.oldPrice())
+                .newPrice(event.newPrice())
+                .note(event.note())
+                .performedAt(event.performedAt())
+                .persisted(false)
+                .build();
+    }
+
+    private PendingSubmissionView toPendingView(PriceRecord record) {
+        CommodityRef commodity = referenceDataCatalog.getCommodity(record.getCommodity().getId());
+        MarketRef market = referenceDataCatalog.getMarket(record.getMarket().getId());
+        Long submittedById = record.getSubmittedBy() != null ? record.getSubmittedBy().getId() : null;
+
+        return new PendingSubmissionView(
+                record.getId(),
+                commodity.id(),
+                commodity.name(),
+                market.id(),
+                market.name(),
+                market.cityId(),
+                market.cityName(),
+                record.getPrice(),
+                record.getRecordedDate(),
+                record.getSource(),
+                record.getStatus(),
+                submittedById,
+                usernameOf(record.getSubmittedBy()),
+                record.getCreatedAt()
+        );
+    }
+
+    private PendingSubmissionResponseDto mapToPendingResponse(PendingReviewQueue.Entry entry, OffsetDateTime now) {
+        PendingSubmissionView view = entry.view();
+        long daysPending = ChronoUnit.DAYS.between(view.createdAt(), now);
+
         return PendingSubmissionResponseDto.builder()
-                .id(record.getId())
-                .commodityId(record.getCommodity().getId())
-                .commodityName(record.getCommodity().getName())
-                .marketId(record.getMarket().getId())
-                .marketName(record.getMarket().getName())
-                .cityName(record.getMarket().getCity().getName())
-                .price(record.getPrice())
-                .recordedDate(record.getRecordedDate())
-                .source(record.getSource())
-                .status(record.getStatus().name())
-                .submittedByUsername(record.getSubmittedBy() != null ? record.getSubmittedBy().getUsername() : null)
+                .id(view.id())
+                .commodityId(view.commodityId())
+                .commodityName(view.commodityName())
+                .marketId(view.marketId())
+                .marketName(view.marketName())
+                .cityName(view.cityName())
+                .price(view.price())
+                .recordedDate(view.recordedDate())
+                .source(view.source())
+                .status(view.status().name())
+                .submittedByUsername(view.submittedByUsername())
                 .daysPending(daysPending)
-                .createdAt(record.getCreatedAt())
+                .outlierScore(BigDecimal.valueOf(entry.outlierScore()).setScale(2, RoundingMode.HALF_UP))
+                .createdAt(view.createdAt())
                 .build();
     }
 }
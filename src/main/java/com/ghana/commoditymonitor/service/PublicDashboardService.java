@@ -31,7 +31,8 @@ public class PublicDashboardService {
     private final SeasonalPatternService seasonalPatternService;
     private final MarketHealthScoreService marketHealthScoreService;
     private final AnalyticsService analyticsService;
-    private final com.ghana.commoditymonitor.repository.CommodityRepository commodityRepository;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final PendingReviewQueue pendingReviewQueue;
 
     @Cacheable("dashboardSummary")
     public Object getDashboardSummary(UserPrincipal principal) {
@@ -65,13 +66,14 @@ public class PublicDashboardService {
             FROM price_records pr
             JOIN commodities c ON pr.commodity_id = c.id
             WHERE pr.status = 'APPROVED'
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL '7 days'
+              AND pr.recorded_date >= :since
             GROUP BY c.id, c.name, c.unit
             ORDER BY avg_price DESC
             LIMIT 3
             """;
 
         Query topQuery = entityManager.createNativeQuery(topCommoditiesSql);
+        topQuery.setParameter("since", LocalDate.now().minusDays(7));
         @SuppressWarnings("unchecked")
         List<Object[]> topResults = topQuery.getResultList();
 
@@ -101,7 +103,7 @@ public class PublicDashboardService {
         List<CommodityMovementDto> topRising = getTopMovingCommodities(true);
         List<CommodityMovementDto> topFalling = getTopMovingCommodities(false);
         List<VolatilityDto> mostVolatile = getMostVolatileCommodities();
-        Map<String, Long> healthSummary = getMarketHealthSummary();
+        Map<String, Long> healthSummary = marketHealthScoreService.getGradeHistogram();
         Long pendingCount = principal.isAdmin() ? getPendingSubmissionsCount() : null;
 
         return FullDashboardDto.builder()
@@ -127,7 +129,7 @@ public class PublicDashboardService {
                     AVG(pr.price) AS avg_price
                 FROM price_records pr
                 WHERE pr.status = 'APPROVED'
-                  AND pr.recorded_date >= DATE_TRUNC('month', CURRENT_DATE)
+                  AND pr.recorded_date >= :currentMonthStart
                 GROUP BY pr.commodity_id
             ),
             previous_month AS (
@@ -136,8 +138,8 @@ public class PublicDashboardService {
                     AVG(pr.price) AS avg_price
                 FROM price_records pr
                 WHERE pr.status = 'APPROVED'
-                  AND pr.recorded_date >= DATE_TRUNC('month', CURRENT_DATE - INTERVAL '1 month')
-                  AND pr.recorded_date < DATE_TRUNC('month', CURRENT_DATE)
+                  AND pr.recorded_date >= :previousMonthStart
+                  AND pr.recorded_date < :currentMonthStart
                 GROUP BY pr.commodity_id
             )
             SELECT 
@@ -156,6 +158,8 @@ public class PublicDashboardService {
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("previousMonthStart", LocalDate.now().withDayOfMonth(1).minusMonths(1));
+        query.setParameter("currentMonthStart", LocalDate.now().withDayOfMonth(1));
         @SuppressWarnings("unchecked")
         List<Object[]> results = query.getResultList();
 
@@ -199,7 +203,7 @@ public class PublicDashboardService {
             FROM price_records pr
             JOIN commodities c ON pr.commodity_id = c.id
             WHERE pr.status = 'APPROVED'
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL '30 days'
+              AND pr.recorded_date >= :since
             GROUP BY c.id, c.name, c.unit
             HAVING COUNT(*) >= 5
             ORDER BY std_dev DESC
@@ -207,6 +211,7 @@ public class PublicDashboardService {
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(30));
         @SuppressWarnings("unchecked")
         List<Object[]> results = query.getResultList();
 
@@ -232,44 +237,8 @@ public class PublicDashboardService {
                 .collect(Collectors.toList());
     }
 
-    private Map<String, Long> getMarketHealthSummary() {
-        String sql = """
-            WITH latest_scores AS (
-                SELECT DISTINCT ON (market_id)
-                    market_id,
-                    grade
-                FROM market_health_scores
-                ORDER BY market_id, computed_at DESC
-            )
-            SELECT grade, COUNT(*) AS count
-            FROM latest_scores
-            GROUP BY grade
-            """;
-
-        Query query = entityManager.createNativeQuery(sql);
-        @SuppressWarnings("unchecked")
-        List<Object[]> results = query.getResultList();
-
-        Map<String, Long> summary = new HashMap<>();
-        summary.put("A", 0L);
-        summary.put("B", 0L);
-        summary.put("C", 0L);
-        summary.put("D", 0L);
-        summary.put("F", 0L);
-
-        for (Object[] row : results) {
-            String grade = row[0].toString();
-            Long count = ((Number) row[1]).longValue();
-            summary.put(grade, count);
-        }
-
-        return summary;
-    }
-
     private Long getPendingSubmissionsCount() {
-        String sql = "SELECT COUNT(*) FROM price_records WHERE status = 'PENDING'";
-        Query query = entityManager.createNativeQuery(sql);
-        return ((Number) query.getSingleResult()).longValue();
+        return pendingReviewQueue.size();
     }
 
     public List<LatestPriceDto> getLatestPrices(Long commodityId, Long cityId, Integer limit, UserPrincipal principal) {
@@ -291,13 +260,14 @@ public class PublicDashboardService {
                 FROM price_records pr
                 JOIN commodities c ON pr.commodity_id = c.id
                 WHERE pr.status = 'APPROVED'
-                  AND pr.recorded_date >= CURRENT_DATE - INTERVAL ':daysBack days'
+                  AND pr.recorded_date >= :since
                 GROUP BY pr.commodity_id, c.name, c.unit
                 ORDER BY price DESC
                 LIMIT :limit
-                """.replace(":daysBack", String.valueOf(daysBack));
+                """;
 
             Query query = entityManager.createNativeQuery(nationalSql);
+            query.setParameter("since", LocalDate.now().minusDays(daysBack));
             query.setParameter("limit", limit);
             
             @SuppressWarnings("unchecked")
@@ -315,7 +285,7 @@ public class PublicDashboardService {
                 ci.name AS city_name,
                 pr.price,
                 pr.recorded_date,
-                CURRENT_DATE - pr.recorded_date AS days_ago
+                :today - pr.recorded_date AS days_ago
             FROM price_records pr
             JOIN commodities c ON pr.commodity_id = c.id
             JOIN markets m ON pr.market_id = m.id
@@ -323,12 +293,14 @@ public class PublicDashboardService {
             WHERE pr.status = 'APPROVED'
               AND (CAST(:commodityId AS bigint) IS NULL OR pr.commodity_id = :commodityId)
               AND (CAST(:cityId AS bigint) IS NULL OR ci.id = :cityId)
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL ':daysBack days'
+              AND pr.recorded_date >= :since
             ORDER BY pr.commodity_id, pr.market_id, pr.recorded_date DESC
             LIMIT :limit
-            """.replace(":daysBack", String.valueOf(daysBack));
+            """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(daysBack));
+        query.setParameter("today", LocalDate.now());
         query.setParameter("commodityId", commodityId);
         query.setParameter("cityId", cityId);
         query.setParameter("limit", limit);
@@ -377,11 +349,12 @@ public class PublicDashboardService {
             WHERE pr.commodity_id = :commodityId
               AND pr.status = 'APPROVED'
               AND (CAST(:cityId AS bigint) IS NULL OR m.city_id = :cityId)
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL ':daysBack days'
+              AND pr.recorded_date >= :since
             GROUP BY c.name, c.unit, ci.name
-            """.replace(":daysBack", String.valueOf(daysBack));
+            """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(daysBack));
         query.setParameter("commodityId", commodityId);
         query.setParameter("cityId", cityId);
 
@@ -412,8 +385,7 @@ public class PublicDashboardService {
     }
 
     public CommoditySpotlightDto getCommoditySpotlight(Long commodityId, UserPrincipal principal) {
-        var commodity = commodityRepository.findById(commodityId)
-                .orElseThrow(() -> new com.ghana.commoditymonitor.exception.ResourceNotFoundException("Commodity", "id", commodityId));
+        var commodity = referenceDataCatalog.getCommodity(commodityId);
 
         BigDecimal currentNationalAvg = getCurrentNationalAverage(commodityId);
         BigDecimal priceChangePercentage = getPriceChangePercentage(commodityId);
@@ -432,10 +404,10 @@ public class PublicDashboardService {
         LatestPriceDto mostExpensive = getMostExpensiveMarket(commodityId);
 
         return CommoditySpotlightDto.builder()
-                .commodityId(commodity.getId())
-                .commodityName(commodity.getName())
-                .unit(commodity.getUnit())
-                .category(commodity.getCategory())
+                .commodityId(commodity.id())
+                .commodityName(commodity.name())
+                .unit(commodity.unit())
+                .category(commodity.category())
                 .currentNationalAvgPrice(currentNationalAvg)
                 .priceChangePercentage(priceChangePercentage)
                 .seasonalOutlook(seasonalOutlook)
@@ -454,10 +426,11 @@ public class PublicDashboardService {
             FROM price_records
             WHERE commodity_id = :commodityId
               AND status = 'APPROVED'
-              AND recorded_date >= CURRENT_DATE - INTERVAL '30 days'
+              AND recorded_date >= :since
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(30));
         query.setParameter("commodityId", commodityId);
         
         Object result = query.getSingleResult();
@@ -473,15 +446,15 @@ public class PublicDashboardService {
                 FROM price_records
                 WHERE commodity_id = :commodityId
                   AND status = 'APPROVED'
-                  AND recorded_date >= DATE_TRUNC('month', CURRENT_DATE)
+                  AND recorded_date >= :currentMonthStart
             ),
             previous_month AS (
                 SELECT AVG(price) AS avg_price
                 FROM price_records
                 WHERE commodity_id = :commodityId
                   AND status = 'APPROVED'
-                  AND recorded_date >= DATE_TRUNC('month', CURRENT_DATE - INTERVAL '1 month')
-                  AND recorded_date < DATE_TRUNC('month', CURRENT_DATE)
+                  AND recorded_date >= :previousMonthStart
+                  AND recorded_date < :currentMonthStart
             )
             SELECT 
                 ((cm.avg_price - pm.avg_price) / NULLIF(pm.avg_price, 0) * 100) AS pct_change
@@ -489,6 +462,8 @@ public class PublicDashboardService {
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("previousMonthStart", LocalDate.now().withDayOfMonth(1).minusMonths(1));
+        query.setParameter("currentMonthStart", LocalDate.now().withDayOfMonth(1));
         query.setParameter("commodityId", commodityId);
         
         Object result = query.getSingleResult();
@@ -504,18 +479,19 @@ public class PublicDashboardService {
             JOIN price_records pr ON pr.market_id = m.id
             WHERE pr.commodity_id = :commodityId
               AND pr.status = 'APPROVED'
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL '30 days'
+              AND pr.recorded_date >= :since
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(30));
         query.setParameter("commodityId", commodityId);
         
         @SuppressWarnings("unchecked")
         List<Number> marketIds = query.getResultList();
 
         return marketIds.stream()
-                .map(id -> marketHealthScoreService.getLatestScoreForMarket(id.longValue(), principal))
-                .filter(Objects::nonNull)
+                .map(id -> marketHealthScoreService.findLatestScoreForMarket(id.longValue(), principal))
+                .flatMap(Optional::stream)
                 .collect(Collectors.toList());
     }
 
@@ -532,11 +508,12 @@ public class PublicDashboardService {
             JOIN commodities c ON pr.commodity_id = c.id
             WHERE pr.commodity_id = :commodityId
               AND pr.status = 'APPROVED'
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL '30 days'
+              AND pr.recorded_date >= :since
             GROUP BY c.id, c.name, c.unit
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(30));
         query.setParameter("commodityId", commodityId);
         
         @SuppressWarnings("unchecked")
@@ -576,18 +553,20 @@ public class PublicDashboardService {
                 ci.name AS city_name,
                 pr.price,
                 pr.recorded_date,
-                CURRENT_DATE - pr.recorded_date AS days_ago
+                :today - pr.recorded_date AS days_ago
             FROM price_records pr
             JOIN commodities c ON pr.commodity_id = c.id
             JOIN markets m ON pr.market_id = m.id
             JOIN cities ci ON m.city_id = ci.id
             WHERE pr.commodity_id = :commodityId
               AND pr.status = 'APPROVED'
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL '7 days'
+              AND pr.recorded_date >= :since
             ORDER BY pr.market_id, pr.recorded_date DESC
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(7));
+        query.setParameter("today", LocalDate.now());
         query.setParameter("commodityId", commodityId);
         
         @SuppressWarnings("unchecked")
@@ -620,18 +599,20 @@ public class PublicDashboardService {
                 ci.name AS city_name,
                 pr.price,
                 pr.recorded_date,
-                CURRENT_DATE - pr.recorded_date AS days_ago
+                :today - pr.recorded_date AS days_ago
             FROM price_records pr
             JOIN commodities c ON pr.commodity_id = c.id
             JOIN markets m ON pr.market_id = m.id
             JOIN cities ci ON m.city_id = ci.id
             WHERE pr.commodity_id = :commodityId
               AND pr.status = 'APPROVED'
-              AND pr.recorded_date >= CURRENT_DATE - INTERVAL '7 days'
+              AND pr.recorded_date >= :since
             ORDER BY pr.market_id, pr.recorded_date DESC
             """;
 
         Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("since", LocalDate.now().minusDays(7));
+        query.setParameter("today", LocalDate.now());
         query.setParameter("commodityId", commodityId);
         
         @SuppressWarnings("unchecked")
@@ -0,0 +1,247 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.projection.CityRef;
+import com.ghana.commoditymonitor.dto.projection.CommodityRef;
+import com.ghana.commoditymonitor.dto.projection.MarketRef;
+import com.ghana.commoditymonitor.dto.projection.UserRef;
+import com.ghana.commoditymonitor.entity.User;
+import com.ghana.commoditymonitor.exception.ResourceNotFoundException;
+import com.ghana.commoditymonitor.repository.CityRepository;
+import com.ghana.commoditymonitor.repository.CommodityRepository;
+import com.ghana.commoditymonitor.repository.MarketRepository;
+import com.ghana.commoditymonitor.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.ghana.commoditymonitor.util.TransactionHooks.afterCommit;
+
+/**
+ * Read-through, in-memory catalog of reference data (commodities, markets, cities and user names).
+ * <p>
+ * Commodities, markets and cities are small and change only a few times a month, so each type is
+ * loaded in full on first use and held as an immutable id and name index until a write invalidates it.
+ * Users are resolved one at a time and memoized, since only a fraction of them are ever referenced.
+ * </p>
+ * <p>
+ * Callers receive immutable {@code *Ref} snapshots, never managed entities. When an entity is needed
+ * for an association, use {@code repository.getReferenceById(ref.id())} after the catalog has
+ * confirmed that the row exists.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCatalog {
+
+    private final CommodityRepository commodityRepository;
+    private final MarketRepository marketRepository;
+    private final CityRepository cityRepository;
+    private final UserRepository userRepository;
+
+    private final Slot<CommodityRef> commodities = new Slot<>();
+    private final Slot<MarketRef> markets = new Slot<>();
+    private final Slot<CityRef> cities = new Slot<>();
+
+    private final Map<Long, UserRef> usersById = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdsByName = new ConcurrentHashMap<>();
+
+    private record Index<T>(Map<Long, T> byId, Map<String, Long> idByName) {
+
+        static <T> Index<T> of(List<T> refs, Function<T, Long> id, Function<T, String> name) {
+            Map<Long, T> byId = new HashMap<>();
+            Map<String, Long> idByName = new HashMap<>();
+            for (T ref : refs) {
+                byId.put(id.apply(ref), ref);
+                idByName.putIfAbsent(normalize(name.apply(ref)), id.apply(ref));
+            }
+            return new Index<>(Map.copyOf(byId), Map.copyOf(idByName));
+        }
+    }
+
+    /**
+     * Lazily loaded index. A load that races with an invalidation is returned to its caller but
+     * not published, so rows read before a commit can never outlive that commit in the cache.
+     */
+    private static final class Slot<T> {
+
+        private volatile Index<T> index;
+        private final AtomicLong generation = new AtomicLong();
+
+        Index<T> get(Supplier<Index<T>> loader) {
+            Index<T> current = index;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    long loadedAt = generation.get();
+                    current = loader.get();
+                    if (generation.get() == loadedAt) {
+                        index = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        void invalidate() {
+            generation.incrementAndGet();
+            index = null;
+        }
+    }
+
+    // ---- Commodities ----
+
+    public Optional<CommodityRef> findCommodity(Long id) {
+        return Optional.ofNullable(commodityIndex().byId().get(id));
+    }
+
+    public CommodityRef getCommodity(Long id) {
+        return findCommodity(id).orElseThrow(() -> new ResourceNotFoundException("Commodity", "id", id));
+    }
+
+    public Optional<Long> findCommodityIdByName(String name) {
+        return Optional.ofNullable(commodityIndex().idByName().get(normalize(name)));
+    }
+
+    public int commodityCount() {
+        return commodityIndex().byId().size();
+    }
+
+    public void invalidateCommodities() {
+        afterCommit(commodities::invalidate);
+    }
+
+    // ---- Markets ----
+
+    public Optional<MarketRef> findMarket(Long id) {
+        return Optional.ofNullable(marketIndex().byId().get(id));
+    }
+
+    public MarketRef getMarket(Long id) {
+        return findMarket(id).orElseThrow(() -> new ResourceNotFoundException("Market", "id", id));
+    }
+
+    public Optional<Long> findMarketIdByName(String name) {
+        return Optional.ofNullable(marketIndex().idByName().get(normalize(name)));
+    }
+
+    public void invalidateMarkets() {
+        afterCommit(markets::invalidate);
+    }
+
+    // ---- Cities ----
+
+    public Optional<CityRef> findCity(Long id) {
+        return Optional.ofNullable(cityIndex().byId().get(id));
+    }
+
+    public CityRef getCity(Long id) {
+        return findCity(id).orElseThrow(() -> new ResourceNotFoundException("City", "id", id));
+    }
+
+    public Optional<Long> findCityIdByName(String name) {
+        return Optional.ofNullable(cityIndex().idByName().get(normalize(name)));
+    }
+
+    /**
+     * Market snapshots carry their city name, so city writes invalidate both indexes.
+     */
+    public void invalidateCities() {
+        afterCommit(() -> {
+            cities.invalidate();
+            markets.invalidate();
+        });
+    }
+
+    // ---- Users ----
+
+    public Optional<UserRef> findUser(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(usersById.computeIfAbsent(id, key -> userRepository.findById(key)
+                .map(user -> new UserRef(user.getId(), user.getUsername()))
+                .orElse(null)));
+    }
+
+    public UserRef getUser(Long id) {
+        return findUser(id).orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+    }
+
+    public Optional<Long> findUserIdByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(userIdsByName.computeIfAbsent(username, key -> userRepository.findByUsername(key)
+                .map(User::getId)
+                .orElse(null)));
+    }
+
+    public void invalidateUser(Long id) {
+        afterCommit(() -> {
+            UserRef removed = usersById.remove(id);
+            if (removed != null) {
+                userIdsByName.remove(removed.username());
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            commodities.invalidate();
+            markets.invalidate();
+            cities.invalidate();
+            usersById.clear();
+            userIdsByName.clear();
+        });
+    }
+
+    // ---- Loading ----
+
+    private Index<CommodityRef> commodityIndex() {
+        return commodities.get(() -> {
+            List<CommodityRef> refs = commodityRepository.findAll().stream()
+                    .map(c -> new CommodityRef(c.getId(), c.getName(), c.getCategory(), c.getUnit()))
+                    .toList();
+            log.debug("Loaded {} commodities into the reference catalog", refs.size());
+            return Index.of(refs, CommodityRef::id, CommodityRef::name);
+        });
+    }
+
+    private Index<MarketRef> marketIndex() {
+        return markets.get(() -> {
+            List<MarketRef> refs = marketRepository.findAllWithCity().stream()
+                    .map(m -> new MarketRef(m.getId(), m.getName(), m.getCity().getId(), m.getCity().getName()))
+                    .toList();
+            log.debug("Loaded {} markets into the reference catalog", refs.size());
+            return Index.of(refs, MarketRef::id, MarketRef::name);
+        });
+    }
+
+    private Index<CityRef> cityIndex() {
+        return cities.get(() -> {
+            List<CityRef> refs = cityRepository.findAll().stream()
+                    .map(c -> new CityRef(c.getId(), c.getName(), c.getRegion()))
+                    .toList();
+            log.debug("Loaded {} cities into the reference catalog", refs.size());
+            return Index.of(refs, CityRef::id, CityRef::name);
+        });
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
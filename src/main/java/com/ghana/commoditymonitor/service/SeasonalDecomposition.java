@@ -0,0 +1,130 @@
+package com.ghana.commoditymonitor.service;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Classical multiplicative decomposition of a monthly price series into trend, seasonal and
+ * residual components.
+ * <p>
+ * The trend is a centred 2x12 moving average, so a year of inflation no longer makes later months
+ * look seasonally expensive. Each month's index is the mean of its price-to-trend ratios across
+ * years, normalised to average 1. The confidence is the strength of seasonality,
+ * {@code max(0, 1 - Var(log residual) / Var(log detrended))}: near 1 when the detrended series is
+ * explained by the seasonal pattern, near 0 when it is mostly noise.
+ * </p>
+ */
+public final class SeasonalDecomposition {
+
+    /**
+     * Months needed for every calendar month to have at least one full trend window.
+     */
+    public static final int MIN_MONTHS = 24;
+
+    private static final int HALF_WINDOW = 6;
+
+    /**
+     * @param seasonalIndices detrended index per calendar month, January first
+     * @param confidence      strength of seasonality in [0, 1]
+     */
+    public record Result(double[] seasonalIndices, double confidence) {}
+
+    private SeasonalDecomposition() {
+    }
+
+    /**
+     * Decomposes {@code monthlyPrices}, consecutive monthly averages starting in calendar month
+     * {@code firstMonthOfYear} (1-12). Missing months are NaN; interior gaps are interpolated for the
+     * trend but contribute no ratio.
+     *
+     * @return empty when the series is shorter than {@value #MIN_MONTHS} months or some calendar
+     *         month has no ratio to the trend
+     */
+    public static Optional<Result> decompose(double[] monthlyPrices, int firstMonthOfYear) {
+        int n = monthlyPrices.length;
+        if (n < MIN_MONTHS) {
+            return Optional.empty();
+        }
+        double[] filled = interpolate(monthlyPrices);
+
+        double[] ratios = new double[n];
+        Arrays.fill(ratios, Double.NaN);
+        double[] ratioSums = new double[12];
+        int[] ratioCounts = new int[12];
+        for (int t = HALF_WINDOW; t < n - HALF_WINDOW; t++) {
+            double trend = 0.5 * (filled[t - HALF_WINDOW] + filled[t + HALF_WINDOW]);
+            for (int k = t - HALF_WINDOW + 1; k < t + HALF_WINDOW; k++) {
+                trend += filled[k];
+            }
+            trend /= 12;
+
+            if (Double.isNaN(monthlyPrices[t]) || trend <= 0) {
+                continue;
+            }
+            ratios[t] = monthlyPrices[t] / trend;
+            int month = (firstMonthOfYear - 1 + t) % 12;
+            ratioSums[month] += ratios[t];
+            ratioCounts[month]++;
+        }
+
+        double[] indices = new double[12];
+        double total = 0;
+        for (int m = 0; m < 12; m++) {
+            if (ratioCounts[m] == 0) {
+                return Optional.empty();
+            }
+            indices[m] = ratioSums[m] / ratioCounts[m];
+            total += indices[m];
+        }
+        for (int m = 0; m < 12; m++) {
+            indices[m] = indices[m] * 12 / total;
+        }
+
+        return Optional.of(new Result(indices, strength(ratios, indices, firstMonthOfYear)));
+    }
+
+    private static double strength(double[] ratios, double[] indices, int firstMonthOfYear) {
+        int count = 0;
+        double detrendedSum = 0;
+        double detrendedSquares = 0;
+        double residualSum = 0;
+        double residualSquares = 0;
+        for (int t = 0; t < ratios.length; t++) {
+            if (Double.isNaN(ratios[t])) {
+                continue;
+            }
+            double detrended = Math.log(ratios[t]);
+            double residual = detrended - Math.log(indices[(firstMonthOfYear - 1 + t) % 12]);
+            count++;
+            detrendedSum += detrended;
+            detrendedSquares += detrended * detrended;
+            residualSum += residual;
+            residualSquares += residual * residual;
+        }
+        double detrendedVariance = detrendedSquares / count - Math.pow(detrendedSum / count, 2);
+        if (detrendedVariance <= 0) {
+            return 0;
+        }
+        double residualVariance = residualSquares / count - Math.pow(residualSum / count, 2);
+        return Math.max(0, 1 - residualVariance / detrendedVariance);
+    }
+
+    /**
+     * Linear interpolation across interior NaN gaps. The ends are never NaN, as the series runs from
+     * the first to the last month with data.
+     */
+    private static double[] interpolate(double[] values) {
+        double[] filled = values.clone();
+        int last = 0;
+        for (int t = 1; t < filled.length; t++) {
+            if (Double.isNaN(filled[t])) {
+                continue;
+            }
+            for (int gap = last + 1; gap < t; gap++) {
+                filled[gap] = filled[last] + (filled[t] - filled[last]) * (gap - last) / (t - last);
+            }
+            last = t;
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,153 @@
+package com.ghana.commoditymonitor.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable in-memory copy of {@code seasonal_patterns}, so seasonal reads are array lookups.
+ * <p>
+ * The whole table is rebuilt and swapped in after every committed recomputation; readers always see
+ * one complete snapshot. A commodity missing from the snapshot is not computed on the reading
+ * thread: {@link #requestMissing} publishes a {@link MissingSeries} event once per commodity and
+ * the recomputation runner computes it in the background.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeasonalIndexTable {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Map<Long, CommoditySeries> snapshot = Map.of();
+    private final Set<Long> requested = ConcurrentHashMap.newKeySet();
+
+    /**
+     * One month of a commodity's pattern. {@code detrendedIndex} and {@code seasonalConfidence}
+     * are null until the commodity has enough history to detrend.
+     */
+    public record MonthlyIndex(int monthOfYear, BigDecimal seasonalIndex, BigDecimal detrendedIndex,
+                               BigDecimal seasonalConfidence, BigDecimal avgPrice, int sampleSize,
+                               int dataYearFrom, int dataYearTo) {
+
+        /**
+         * The detrended index when there is one, since the raw index favours early months whenever
+         * prices trend upwards.
+         */
+        public BigDecimal effectiveIndex() {
+            return detrendedIndex != null ? detrendedIndex : seasonalIndex;
+        }
+    }
+
+    /**
+     * Published when a read finds no patterns for a commodity.
+     */
+    public record MissingSeries(Long commodityId) {}
+
+    /**
+     * A commodity's months, indexed by month of year, with the cheapest and dearest precomputed.
+     */
+    public static final class CommoditySeries {
+
+        private final MonthlyIndex[] byMonth = new MonthlyIndex[13];
+        private final List<MonthlyIndex> months;
+        private final MonthlyIndex cheapest;
+        private final MonthlyIndex dearest;
+
+        private CommoditySeries(List<MonthlyIndex> monthList) {
+            monthList.forEach(month -> byMonth[month.monthOfYear()] = month);
+            this.months = Collections.unmodifiableList(Arrays.stream(byMonth).filter(Objects::nonNull).toList());
+            Comparator<MonthlyIndex> byIndex = Comparator.comparing(MonthlyIndex::effectiveIndex);
+            this.cheapest = months.stream().min(byIndex).orElseThrow();
+            this.dearest = months.stream().max(byIndex).orElseThrow();
+        }
+
+        /**
+         * Months with data, January first.
+         */
+        public List<MonthlyIndex> months() {
+            return months;
+        }
+
+        public Optional<MonthlyIndex> month(int monthOfYear) {
+            return Optional.ofNullable(byMonth[monthOfYear]);
+        }
+
+        public MonthlyIndex cheapest() {
+            return cheapest;
+        }
+
+        public MonthlyIndex dearest() {
+            return dearest;
+        }
+    }
+
+    public Optional<CommoditySeries> find(Long commodityId) {
+        return Optional.ofNullable(snapshot.get(commodityId));
+    }
+
+    /**
+     * Asks for {@code commodityId} to be computed in the background, once per process. A commodity
+     * without enough data stays missing until a recomputation covers it.
+     */
+    public void requestMissing(Long commodityId) {
+        if (requested.add(commodityId)) {
+            log.info("No seasonal patterns cached for commodity {}; computing in the background", commodityId);
+            eventPublisher.publishEvent(new MissingSeries(commodityId));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the table from the database. Serialized, so the last reload to finish began after
+     * the last commit that triggered one.
+     */
+    public synchronized void reload() {
+        Map<Long, List<MonthlyIndex>> rows = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT commodity_id, month_of_year, seasonal_index, detrended_index, seasonal_confidence,
+                       avg_price, sample_size, data_year_from, data_year_to
+                FROM seasonal_patterns
+                """,
+            rs -> {
+                rows.computeIfAbsent(rs.getLong("commodity_id"), id -> new ArrayList<>(12)).add(new MonthlyIndex(
+                    rs.getInt("month_of_year"),
+                    rs.getBigDecimal("seasonal_index"),
+                    rs.getBigDecimal("detrended_index"),
+                    rs.getBigDecimal("seasonal_confidence"),
+                    rs.getBigDecimal("avg_price"),
+                    rs.getInt("sample_size"),
+                    rs.getInt("data_year_from"),
+                    rs.getInt("data_year_to")));
+            });
+
+        Map<Long, CommoditySeries> next = new HashMap<>();
+        rows.forEach((commodityId, months) -> next.put(commodityId, new CommoditySeries(months)));
+        snapshot = Map.copyOf(next);
+        requested.removeAll(next.keySet());
+        log.debug("Seasonal index table reloaded with {} commodities", next.size());
+    }
+}
@@ -1,212 +1,358 @@
 package com.ghana.commoditymonitor.service;
 
+import com.ghana.commoditymonitor.dto.projection.SeasonalLocationSeries;
+import com.ghana.commoditymonitor.dto.response.SeasonalLocationPatternDto;
 import com.ghana.commoditymonitor.dto.response.SeasonalOutlookDto;
 import com.ghana.commoditymonitor.dto.response.SeasonalPatternDto;
-import com.ghana.commoditymonitor.entity.Commodity;
 import com.ghana.commoditymonitor.entity.SeasonalPattern;
 import com.ghana.commoditymonitor.enums.SeasonalOutlook;
+import com.ghana.commoditymonitor.enums.SeasonalScope;
 import com.ghana.commoditymonitor.exception.ResourceNotFoundException;
-import com.ghana.commoditymonitor.repository.CommodityRepository;
-import com.ghana.commoditymonitor.repository.PriceRecordRepository;
+import com.ghana.commoditymonitor.repository.SeasonalLocationPatternRepository;
 import com.ghana.commoditymonitor.repository.SeasonalPatternRepository;
 import com.ghana.commoditymonitor.security.UserPrincipal;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.ghana.commoditymonitor.util.TransactionHooks.afterCommit;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class SeasonalPatternService {
 
+    private static final int MIN_RECORDS = 12;
+
+    /**
+     * Computes the monthly indices of every requested commodity from its
+     * {@code commodity_monthly_rollups} accumulators, once their pending deltas are folded in, and
+     * upserts them on {@code uq_seasonal_commodity_month}, so existing patterns stay readable
+     * until the new ones commit. Commodities with fewer than {@value #MIN_RECORDS} approved records
+     * are left untouched. Every row written gets the transaction's NOW() as {@code computed_at},
+     * which is how months that no longer have data are found afterwards.
+     */
+    private static final String UPSERT_PATTERNS_SQL = """
+        WITH monthly AS (
+            SELECT
+                r.commodity_id,
+                EXTRACT(MONTH FROM r.month_start)::SMALLINT AS month_of_year,
+                SUM(r.price_sum) AS month_total,
+                SUM(r.record_count) AS sample_size,
+                MIN(EXTRACT(YEAR FROM r.month_start))::SMALLINT AS year_from,
+                MAX(EXTRACT(YEAR FROM r.month_start))::SMALLINT AS year_to
+            FROM commodity_monthly_rollups r
+            WHERE r.record_count > 0
+              AND r.commodity_id IN (:commodityIds)
+            GROUP BY r.commodity_id, month_of_year
+        ),
+        overall AS (
+            SELECT commodity_id, SUM(month_total) / SUM(sample_size) AS grand_avg
+            FROM monthly
+            GROUP BY commodity_id
+            HAVING SUM(sample_size) >= :minRecords
+        )
+        INSERT INTO seasonal_patterns (commodity_id, month_of_year, seasonal_index, avg_price,
+                                       data_year_from, data_year_to, sample_size, computed_at)
+        SELECT
+            m.commodity_id,
+            m.month_of_year,
+            ROUND(m.month_total / m.sample_size / NULLIF(o.grand_avg, 0), 4),
+            ROUND(m.month_total / m.sample_size, 2),
+            m.year_from,
+            m.year_to,
+            m.sample_size,
+            NOW()
+        FROM monthly m
+        JOIN overall o ON o.commodity_id = m.commodity_id
+        ON CONFLICT ON CONSTRAINT uq_seasonal_commodity_month DO UPDATE SET
+            seasonal_index = EXCLUDED.seasonal_index,
+            avg_price = EXCLUDED.avg_price,
+            data_year_from = EXCLUDED.data_year_from,
+            data_year_to = EXCLUDED.data_year_to,
+            sample_size = EXCLUDED.sample_size,
+            computed_at = EXCLUDED.computed_at
+        """;
+
+    /**
+     * Moves pending {@code commodity_monthly_rollup_deltas} (appended by triggers on price_records)
+     * into the rollups and returns the commodities they touched. Deleting the deltas locks them,
+     * so two concurrent folds never apply the same delta twice; deltas of deleted commodities are
+     * discarded. The {@code %s} placeholder takes an optional WHERE clause on the deltas.
+     */
+    private static final String FOLD_ROLLUP_DELTAS_SQL = """
+        WITH folded AS (
+            DELETE FROM commodity_monthly_rollup_deltas d%s
+            RETURNING commodity_id, month_start, price_delta, count_delta
+        ),
+        live AS (
+            SELECT f.* FROM folded f WHERE EXISTS (SELECT 1 FROM commodities c WHERE c.id = f.commodity_id)
+        ),
+        applied AS (
+            INSERT INTO commodity_monthly_rollups (commodity_id, month_start, price_sum, record_count)
+            SELECT commodity_id, month_start, SUM(price_delta), SUM(count_delta)
+            FROM live
+            GROUP BY commodity_id, month_start
+            HAVING SUM(price_delta) <> 0 OR SUM(count_delta) <> 0
+            ORDER BY commodity_id, month_start
+            ON CONFLICT (commodity_id, month_start) DO UPDATE SET
+                price_sum = commodity_monthly_rollups.price_sum + EXCLUDED.price_sum,
+                record_count = commodity_monthly_rollups.record_count + EXCLUDED.record_count,
+                updated_at = NOW()
+        )
+        SELECT DISTINCT commodity_id FROM live ORDER BY commodity_id
+        """;
+
     private final SeasonalPatternRepository seasonalPatternRepository;
-    private final CommodityRepository commodityRepository;
-    private final PriceRecordRepository priceRecordRepository;
+    private final SeasonalLocationPatternRepository seasonalLocationPatternRepository;
     private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final SeasonalIndexTable seasonalIndexTable;
 
     @Transactional
     public List<SeasonalPattern> computePatternsForCommodity(Long commodityId) {
         log.info("Computing seasonal patterns for commodity: {}", commodityId);
 
-        Commodity commodity = commodityRepository.findById(commodityId)
-                .orElseThrow(() -> new ResourceNotFoundException("Commodity", "id", commodityId));
-
-        long totalRecords = priceRecordRepository.countByCommodityIdAndStatus(commodityId, com.ghana.commoditymonitor.enums.PriceRecordStatus.APPROVED);
+        referenceDataCatalog.getCommodity(commodityId);
 
-        if (totalRecords < 12) {
-            log.warn("Insufficient data for commodity {}: only {} approved records (minimum 12 required)", 
-                     commodityId, totalRecords);
+        if (upsertPatterns(List.of(commodityId)).isEmpty()) {
+            log.warn("Insufficient data for commodity {}: fewer than {} approved records",
+                     commodityId, MIN_RECORDS);
             return new ArrayList<>();
         }
+        return seasonalPatternRepository.findByCommodityIdOrderByMonthOfYear(commodityId);
+    }
 
-        String sql = """
-            WITH monthly_avgs AS (
-                SELECT
-                    pr.commodity_id,
-                    EXTRACT(MONTH FROM pr.recorded_date)::SMALLINT AS month_of_year,
-                    AVG(pr.price) AS month_avg,
-                    COUNT(*) AS sample_size,
-                    MIN(EXTRACT(YEAR FROM pr.recorded_date))::SMALLINT AS year_from,
-                    MAX(EXTRACT(YEAR FROM pr.recorded_date))::SMALLINT AS year_to
-                FROM price_records pr
-                WHERE pr.status = 'APPROVED'
-                  AND pr.commodity_id = :commodityId
-                GROUP BY pr.commodity_id, month_of_year
-            ),
-            overall_avg AS (
-                SELECT AVG(price) AS grand_avg
-                FROM price_records
-                WHERE status = 'APPROVED'
-                  AND commodity_id = :commodityId
-            )
-            SELECT
-                ma.commodity_id,
-                ma.month_of_year,
-                ma.month_avg,
-                ROUND((ma.month_avg / NULLIF(oa.grand_avg, 0))::NUMERIC, 4) AS seasonal_index,
-                ma.sample_size,
-                ma.year_from,
-                ma.year_to
-            FROM monthly_avgs ma
-            CROSS JOIN overall_avg oa
-            ORDER BY ma.month_of_year
-            """;
-
-        Query query = entityManager.createNativeQuery(sql);
-        query.setParameter("commodityId", commodityId);
+    /**
+     * Folds the given commodities' pending rollup deltas, recomputes them in one statement and
+     * removes months that no longer have approved prices.
+     *
+     * @return the number of monthly patterns written, by commodity; commodities without enough
+     *         data are absent
+     */
+    @Transactional
+    public Map<Long, Integer> upsertPatterns(Collection<Long> commodityIds) {
+        if (commodityIds.isEmpty()) {
+            return Map.of();
+        }
+        // Deltas of writers still in flight stay pending for the next fold
+        entityManager.createNativeQuery(FOLD_ROLLUP_DELTAS_SQL.formatted(" WHERE d.commodity_id IN (:commodityIds)"))
+                .setParameter("commodityIds", commodityIds)
+                .getResultList();
+
+        entityManager.createNativeQuery(UPSERT_PATTERNS_SQL)
+                .setParameter("commodityIds", commodityIds)
+                .setParameter("minRecords", MIN_RECORDS)
+                .executeUpdate();
+
+        entityManager.createNativeQuery("""
+                DELETE FROM seasonal_patterns sp
+                WHERE sp.commodity_id IN (:commodityIds)
+                  AND sp.computed_at < NOW()
+                  AND EXISTS (SELECT 1 FROM seasonal_patterns fresh
+                              WHERE fresh.commodity_id = sp.commodity_id AND fresh.computed_at = NOW())
+                """)
+                .setParameter("commodityIds", commodityIds)
+                .executeUpdate();
+
+        applyDecomposition(commodityIds);
+        afterCommit(seasonalIndexTable::reload);
 
         @SuppressWarnings("unchecked")
-        List<Object[]> results = query.getResultList();
-
-        seasonalPatternRepository.deleteAllByCommodityId(commodityId);
-        seasonalPatternRepository.flush(); // Ensure deletion is committed before insertion
-
-        List<SeasonalPattern> patterns = results.stream()
-                .map(row -> SeasonalPattern.builder()
-                        .commodity(commodity)
-                        .monthOfYear(((Number) row[1]).shortValue())
-                        .avgPrice(BigDecimal.valueOf(((Number) row[2]).doubleValue()).setScale(2, RoundingMode.HALF_UP))
-                        .seasonalIndex(BigDecimal.valueOf(((Number) row[3]).doubleValue()).setScale(4, RoundingMode.HALF_UP))
-                        .sampleSize(((Number) row[4]).intValue())
-                        .dataYearFrom(((Number) row[5]).shortValue())
-                        .dataYearTo(((Number) row[6]).shortValue())
-                        .build())
-                .collect(Collectors.toList());
-
-        return seasonalPatternRepository.saveAll(patterns);
+        List<Object[]> written = entityManager.createNativeQuery("""
+                SELECT commodity_id, COUNT(*)
+                FROM seasonal_patterns
+                WHERE commodity_id IN (:commodityIds) AND computed_at = NOW()
+                GROUP BY commodity_id
+                """)
+                .setParameter("commodityIds", commodityIds)
+                .getResultList();
+
+        return written.stream().collect(Collectors.toMap(
+                row -> ((Number) row[0]).longValue(),
+                row -> ((Number) row[1]).intValue()));
     }
 
-    @Transactional
-    public void computeAllPatterns() {
-        long startTime = System.currentTimeMillis();
-        
-        List<Long> commodityIds = commodityRepository.findAllIds();
-
-        int computed = 0;
+    /**
+     * Sets the detrended index and confidence of the given commodities' patterns from a
+     * {@link SeasonalDecomposition} of their monthly averages, or clears them when the history is
+     * too short.
+     */
+    private void applyDecomposition(Collection<Long> commodityIds) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                SELECT commodity_id,
+                       (EXTRACT(YEAR FROM month_start) * 12 + EXTRACT(MONTH FROM month_start) - 1)::INT AS month_number,
+                       price_sum / record_count AS avg_price
+                FROM commodity_monthly_rollups
+                WHERE record_count > 0 AND commodity_id IN (:commodityIds)
+                ORDER BY commodity_id, month_start
+                """)
+                .setParameter("commodityIds", commodityIds)
+                .getResultList();
+
+        Map<Long, List<Object[]>> byCommodity = rows.stream()
+                .collect(Collectors.groupingBy(row -> ((Number) row[0]).longValue()));
+
+        List<Object[]> updates = new ArrayList<>(commodityIds.size() * 12);
         for (Long commodityId : commodityIds) {
-            try {
-                List<SeasonalPattern> patterns = computePatternsForCommodity(commodityId);
-                if (!patterns.isEmpty()) {
-                    computed++;
+            List<Object[]> months = byCommodity.getOrDefault(commodityId, List.of());
+            Optional<SeasonalDecomposition.Result> result = Optional.empty();
+            if (!months.isEmpty()) {
+                int first = ((Number) months.get(0)[1]).intValue();
+                int last = ((Number) months.get(months.size() - 1)[1]).intValue();
+                double[] prices = new double[last - first + 1];
+                Arrays.fill(prices, Double.NaN);
+                for (Object[] month : months) {
+                    prices[((Number) month[1]).intValue() - first] = ((Number) month[2]).doubleValue();
                 }
-            } catch (ResourceNotFoundException e) {
-                log.warn("Commodity {} disappeared during recomputation — skipping.", commodityId);
-            } finally {
-                entityManager.clear();
+                result = SeasonalDecomposition.decompose(prices, first % 12 + 1);
+            }
+
+            for (int m = 0; m < 12; m++) {
+                int month = m;
+                updates.add(new Object[] {
+                        result.map(r -> scaled(r.seasonalIndices()[month], 4)).orElse(null),
+                        result.map(r -> scaled(r.confidence(), 4)).orElse(null),
+                        commodityId,
+                        m + 1
+                });
             }
         }
+        jdbcTemplate.batchUpdate(
+                "UPDATE seasonal_patterns SET detrended_index = ?, seasonal_confidence = ? WHERE commodity_id = ? AND month_of_year = ?",
+                updates);
+    }
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Seasonal patterns computed for {} commodities in {}ms", computed, duration);
+    private static BigDecimal scaled(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
     }
 
-    public List<SeasonalPatternDto> getPatternsForCommodity(Long commodityId, UserPrincipal principal) {
-        log.debug("Fetching seasonal patterns for commodity: {}", commodityId);
+    /**
+     * Folds every pending rollup delta and recomputes the commodities they touched, i.e. those
+     * whose prices changed since their patterns were last computed.
+     *
+     * @return the number of commodities recomputed
+     */
+    @Transactional
+    public int refreshQueuedPatterns() {
+        @SuppressWarnings("unchecked")
+        List<Number> changed = entityManager.createNativeQuery(FOLD_ROLLUP_DELTAS_SQL.formatted(""))
+                .getResultList();
 
-        List<SeasonalPattern> patterns = seasonalPatternRepository.findByCommodityIdOrderByMonthOfYear(commodityId);
+        List<Long> commodityIds = changed.stream().map(Number::longValue).toList();
+        upsertPatterns(commodityIds);
+        return commodityIds.size();
+    }
 
-        if (patterns.isEmpty()) {
-            patterns = computePatternsForCommodity(commodityId);
+    /**
+     * Recomputes the city and market series of the given commodities in one statement.
+     *
+     * @return the number of series written, by commodity
+     */
+    @Transactional
+    public Map<Long, Integer> upsertLocationPatterns(Collection<Long> commodityIds) {
+        if (commodityIds.isEmpty()) {
+            return Map.of();
         }
+        return seasonalLocationPatternRepository.recompute(commodityIds, MIN_RECORDS);
+    }
 
-        List<SeasonalPatternDto> dtos = patterns.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public SeasonalLocationPatternDto getLocationPatterns(Long commodityId, SeasonalScope scope, Long locationId,
+                                                          UserPrincipal principal) {
+        log.debug("Fetching {} seasonal patterns for commodity: {}, location: {}", scope, commodityId, locationId);
+
+        String commodityName = referenceDataCatalog.getCommodity(commodityId).name();
+        String locationName = scope == SeasonalScope.CITY
+                ? referenceDataCatalog.getCity(locationId).name()
+                : referenceDataCatalog.getMarket(locationId).name();
+
+        SeasonalLocationSeries series = seasonalLocationPatternRepository.find(commodityId, scope, locationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Seasonal pattern",
+                        scope == SeasonalScope.CITY ? "cityId" : "marketId", locationId));
+
+        List<SeasonalPatternDto> months = new ArrayList<>(12);
+        for (int i = 0; i < 12; i++) {
+            BigDecimal index = series.seasonalIndices().get(i);
+            if (index != null) {
+                months.add(toDto(commodityId, i + 1, series.avgPrices().get(i), index, null, null,
+                        series.sampleSizes().get(i), series.dataYearFrom(), series.dataYearTo()));
+            }
+        }
+        SeasonalPatternDto bestMonth = months.stream()
+                .min(Comparator.comparing(SeasonalPatternDto::seasonalIndex))
+                .orElse(null);
 
         if (principal == null) {
-            int currentMonth = LocalDate.now().getMonthValue();
-            return dtos.stream()
-                    .filter(dto -> {
-                        int month = dto.monthOfYear();
-                        return month == currentMonth || 
-                               month == (currentMonth % 12) + 1 || 
-                               month == ((currentMonth + 1) % 12) + 1;
-                    })
-                    .collect(Collectors.toList());
+            months = months.stream().filter(dto -> isPreviewMonth(dto.monthOfYear())).toList();
         }
+        return new SeasonalLocationPatternDto(commodityId, commodityName, scope, locationId, locationName,
+                months, bestMonth);
+    }
 
-        return dtos;
+    // Seasonal reads are served from SeasonalIndexTable and need no connection
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<SeasonalPatternDto> getPatternsForCommodity(Long commodityId, UserPrincipal principal) {
+        log.debug("Fetching seasonal patterns for commodity: {}", commodityId);
+
+        Optional<SeasonalIndexTable.CommoditySeries> series = findSeries(commodityId);
+        if (series.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return series.get().months().stream()
+                .filter(month -> principal != null || isPreviewMonth(month.monthOfYear()))
+                .map(month -> toDto(commodityId, month))
+                .collect(Collectors.toList());
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SeasonalPatternDto getBestMonthToBuy(Long commodityId) {
         log.debug("Finding best month to buy for commodity: {}", commodityId);
 
-        List<SeasonalPattern> patterns = seasonalPatternRepository.findByCommodityIdOrderByMonthOfYear(commodityId);
-
-        if (patterns.isEmpty()) {
-            patterns = computePatternsForCommodity(commodityId);
-        }
-
-        return patterns.stream()
-                .min(Comparator.comparing(SeasonalPattern::getSeasonalIndex))
-                .map(this::mapToDto)
+        return findSeries(commodityId)
+                .map(series -> toDto(commodityId, series.cheapest()))
                 .orElseThrow(() -> new ResourceNotFoundException("Seasonal pattern", "commodityId", commodityId));
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SeasonalPatternDto getWorstMonthToBuy(Long commodityId) {
         log.debug("Finding worst month to buy for commodity: {}", commodityId);
 
-        List<SeasonalPattern> patterns = seasonalPatternRepository.findByCommodityIdOrderByMonthOfYear(commodityId);
-
-        if (patterns.isEmpty()) {
-            patterns = computePatternsForCommodity(commodityId);
-        }
-
-        return patterns.stream()
-                .max(Comparator.comparing(SeasonalPattern::getSeasonalIndex))
-                .map(this::mapToDto)
+        return findSeries(commodityId)
+                .map(series -> toDto(commodityId, series.dearest()))
                 .orElseThrow(() -> new ResourceNotFoundException("Seasonal pattern", "commodityId", commodityId));
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SeasonalOutlookDto getCurrentMonthOutlook(Long commodityId) {
         log.debug("Getting current month outlook for commodity: {}", commodityId);
 
         int currentMonth = LocalDate.now().getMonthValue();
-        
-        List<SeasonalPattern> patterns = seasonalPatternRepository.findByCommodityIdOrderByMonthOfYear(commodityId);
 
-        if (patterns.isEmpty()) {
-            patterns = computePatternsForCommodity(commodityId);
-        }
-
-        SeasonalPattern currentPattern = patterns.stream()
-                .filter(p -> p.getMonthOfYear() == currentMonth)
-                .findFirst()
+        SeasonalIndexTable.MonthlyIndex currentPattern = findSeries(commodityId)
+                .flatMap(series -> series.month(currentMonth))
                 .orElseThrow(() -> new ResourceNotFoundException("Seasonal pattern for current month", "commodityId", commodityId));
 
-        BigDecimal index = currentPattern.getSeasonalIndex();
+        BigDecimal index = currentPattern.effectiveIndex();
         SeasonalOutlook outlook = determineOutlook(index);
         BigDecimal percentageFromAverage = index.subtract(BigDecimal.ONE)
                 .multiply(new BigDecimal("100"))
@@ -216,7 +362,7 @@ public class SeasonalPatternService {
                 .getDisplayName(java.time.format.TextStyle.FULL, java.util.Locale.ENGLISH);
 
         String message = buildOutlookMessage(
-                currentPattern.getCommodity().getName(),
+                referenceDataCatalog.getCommodity(commodityId).name(),
                 monthName,
                 outlook,
                 percentageFromAverage.abs()
@@ -224,7 +370,7 @@ public class SeasonalPatternService {
 
         return new SeasonalOutlookDto(
                 commodityId,
-                currentPattern.getCommodity().getName(),
+                referenceDataCatalog.getCommodity(commodityId).name(),
                 monthName,
                 index,
                 outlook,
@@ -233,26 +379,65 @@ public class SeasonalPatternService {
         );
     }
 
-    private SeasonalPatternDto mapToDto(SeasonalPattern pattern) {
-        SeasonalOutlook interpretation = determineOutlook(pattern.getSeasonalIndex());
-        
-        String monthName = java.time.Month.of(pattern.getMonthOfYear())
+    /**
+     * The commodity's cached patterns. A miss for an existing commodity is computed in the
+     * background rather than on this thread.
+     */
+    private Optional<SeasonalIndexTable.CommoditySeries> findSeries(Long commodityId) {
+        Optional<SeasonalIndexTable.CommoditySeries> series = seasonalIndexTable.find(commodityId);
+        if (series.isEmpty()) {
+            referenceDataCatalog.getCommodity(commodityId);
+            seasonalIndexTable.requestMissing(commodityId);
+        }
+        return series;
+    }
+
+    private SeasonalPatternDto toDto(Long commodityId, SeasonalIndexTable.MonthlyIndex month) {
+        return toDto(
+                commodityId,
+                month.monthOfYear(),
+                month.avgPrice(),
+                month.seasonalIndex(),
+                month.detrendedIndex(),
+                month.seasonalConfidence(),
+                month.sampleSize(),
+                month.dataYearFrom(),
+                month.dataYearTo()
+        );
+    }
+
+    private SeasonalPatternDto toDto(Long commodityId, int monthOfYear, BigDecimal avgPrice, BigDecimal seasonalIndex,
+                                     BigDecimal detrendedIndex, BigDecimal seasonalConfidence,
+                                     Integer sampleSize, int dataYearFrom, int dataYearTo) {
+        String monthName = java.time.Month.of(monthOfYear)
                 .getDisplayName(java.time.format.TextStyle.FULL, java.util.Locale.ENGLISH);
 
         return new SeasonalPatternDto(
-                pattern.getCommodity().getId(),
-                pattern.getCommodity().getName(),
-                pattern.getMonthOfYear().intValue(),
+                commodityId,
+                referenceDataCatalog.getCommodity(commodityId).name(),
+                monthOfYear,
                 monthName,
-                pattern.getAvgPrice(),
-                pattern.getSeasonalIndex(),
-                interpretation,
-                pattern.getSampleSize(),
-                pattern.getDataYearFrom().intValue(),
-                pattern.getDataYearTo().intValue()
+                avgPrice,
+                seasonalIndex,
+                detrendedIndex,
+                seasonalConfidence,
+                determineOutlook(detrendedIndex != null ? detrendedIndex : seasonalIndex),
+                sampleSize,
+                dataYearFrom,
+                dataYearTo
         );
     }
 
+    /**
+     * Guests see the current month and the two after it.
+     */
+    private boolean isPreviewMonth(int month) {
+        int currentMonth = LocalDate.now().getMonthValue();
+        return month == currentMonth ||
+               month == (currentMonth % 12) + 1 ||
+               month == ((currentMonth + 1) % 12) + 1;
+    }
+
     private SeasonalOutlook determineOutlook(BigDecimal seasonalIndex) {
         if (seasonalIndex.compareTo(new BigDecimal("1.10")) > 0) {
             return SeasonalOutlook.EXPENSIVE;
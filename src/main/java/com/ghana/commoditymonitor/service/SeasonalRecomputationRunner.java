@@ -0,0 +1,235 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.exception.BusinessRuleException;
+import com.ghana.commoditymonitor.repository.CommodityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Recomputes seasonal patterns for every commodity on a bounded pool of workers.
+ * <p>
+ * Commodities are dealt round-robin into one batch per worker. A worker recomputes its batch with
+ * one set-based upsert in its own transaction through {@link SeasonalPatternService}, so no
+ * connection is held for the whole run. If that pass fails it is rolled back and the worker retries
+ * the batch one commodity per transaction, so a bad commodity only fails itself. The pool size is
+ * {@code app.seasonal.recompute.parallelism} and should stay below the connection pool size. The
+ * same pool runs commodity patterns and city/market series. Batches are timed under the
+ * {@code seasonal.recompute.batch} metric and commodities retried on their own under
+ * {@code seasonal.recompute.commodity}, both tagged by job and outcome.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeasonalRecomputationRunner {
+
+    private final SeasonalPatternService seasonalPatternService;
+    private final CommodityRepository commodityRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.seasonal.recompute.parallelism:3}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService executor;
+
+    public enum Outcome { COMPUTED, INSUFFICIENT_DATA, FAILED }
+
+    /**
+     * How one commodity's recomputation went. {@code patterns} counts the monthly patterns or
+     * location series written, and {@code durationMs} is the time of the pass that wrote them: the
+     * whole batch's, unless the commodity was retried on its own.
+     */
+    public record CommodityResult(Long commodityId, Outcome outcome, int patterns, long durationMs) {}
+
+    /**
+     * Totals for a full run.
+     */
+    public record RunSummary(int commodities, int computed, int failed, long durationMs, List<CommodityResult> results) {}
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "seasonal-recompute-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Computes a commodity that a read found missing, on the worker pool.
+     */
+    @EventListener
+    public void onMissingSeries(SeasonalIndexTable.MissingSeries event) {
+        executor.execute(() -> {
+            try {
+                seasonalPatternService.upsertPatterns(List.of(event.commodityId()));
+            } catch (Exception e) {
+                log.error("Failed to compute missing seasonal patterns for commodity {}", event.commodityId(), e);
+            }
+        });
+    }
+
+    /**
+     * Recomputes the patterns of every commodity and waits for the run to finish. Only one run,
+     * of either kind, may be in progress.
+     */
+    public RunSummary recomputeAll() {
+        return run("commodity", seasonalPatternService::upsertPatterns);
+    }
+
+    /**
+     * Recomputes the city and market series of every commodity and waits for the run to finish.
+     */
+    public RunSummary recomputeAllLocations() {
+        return run("location", seasonalPatternService::upsertLocationPatterns);
+    }
+
+    private RunSummary run(String job, Function<List<Long>, Map<Long, Integer>> step) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessRuleException("Seasonal pattern recomputation is already running");
+        }
+        try {
+            return runAll(job, step);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private RunSummary runAll(String job, Function<List<Long>, Map<Long, Integer>> step) {
+        long startTime = System.currentTimeMillis();
+        List<Long> commodityIds = commodityRepository.findAllIds();
+
+        int batchCount = Math.max(1, Math.min(parallelism, commodityIds.size()));
+        List<List<Long>> batches = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(new ArrayList<>());
+        }
+        for (int i = 0; i < commodityIds.size(); i++) {
+            batches.get(i % batchCount).add(commodityIds.get(i));
+        }
+
+        List<Callable<List<CommodityResult>>> tasks = batches.stream()
+            .<Callable<List<CommodityResult>>>map(batch -> () -> recomputeBatch(job, batch, step))
+            .toList();
+
+        List<CommodityResult> results = new ArrayList<>(commodityIds.size());
+        try {
+            List<Future<List<CommodityResult>>> futures = executor.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.addAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    // recomputeBatch() catches everything, so this is only an Error escaping a worker
+                    log.error("Seasonal recomputation worker failed for commodities {}", batches.get(i), e.getCause());
+                    batches.get(i).forEach(id -> results.add(new CommodityResult(id, Outcome.FAILED, 0, 0)));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessRuleException("Seasonal pattern recomputation was interrupted");
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        int computed = (int) results.stream().filter(r -> r.outcome() == Outcome.COMPUTED).count();
+        int failed = (int) results.stream().filter(r -> r.outcome() == Outcome.FAILED).count();
+
+        log.info("Seasonal {} patterns computed for {} of {} commodities in {}ms ({} failed, parallelism {})",
+                job, computed, commodityIds.size(), duration, failed, batchCount);
+
+        return new RunSummary(commodityIds.size(), computed, failed, duration, results);
+    }
+
+    /**
+     * Recomputes a worker's batch in one set-based pass, falling back to one commodity at a time
+     * if the pass fails.
+     */
+    private List<CommodityResult> recomputeBatch(String job, List<Long> batch,
+                                                 Function<List<Long>, Map<Long, Integer>> step) {
+        long start = System.nanoTime();
+        Map<Long, Integer> written;
+        try {
+            written = step.apply(batch);
+        } catch (Exception e) {
+            recordBatch(job, Outcome.FAILED, System.nanoTime() - start);
+            log.warn("Seasonal {} recomputation failed for commodities {}, retrying them one at a time",
+                    job, batch, e);
+            return batch.stream()
+                .map(commodityId -> recompute(job, commodityId, step))
+                .toList();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        recordBatch(job, Outcome.COMPUTED, elapsed);
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        log.debug("Seasonal {} recomputation for {} commodities in {}ms", job, batch.size(), durationMs);
+        return batch.stream()
+            .map(commodityId -> {
+                int patterns = written.getOrDefault(commodityId, 0);
+                Outcome outcome = patterns > 0 ? Outcome.COMPUTED : Outcome.INSUFFICIENT_DATA;
+                return new CommodityResult(commodityId, outcome, patterns, durationMs);
+            })
+            .toList();
+    }
+
+    private void recordBatch(String job, Outcome outcome, long elapsedNanos) {
+        Timer.builder("seasonal.recompute.batch")
+            .description("Time to recompute the seasonal patterns of one worker's batch of commodities")
+            .tag("job", job)
+            .tag("outcome", outcome.name().toLowerCase())
+            .register(meterRegistry)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private CommodityResult recompute(String job, Long commodityId, Function<List<Long>, Map<Long, Integer>> step) {
+        long start = System.nanoTime();
+        Outcome outcome;
+        int patterns = 0;
+        try {
+            patterns = step.apply(List.of(commodityId)).getOrDefault(commodityId, 0);
+            outcome = patterns > 0 ? Outcome.COMPUTED : Outcome.INSUFFICIENT_DATA;
+        } catch (Exception e) {
+            log.error("Failed to recompute seasonal {} patterns for commodity {}", job, commodityId, e);
+            outcome = Outcome.FAILED;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("seasonal.recompute.commodity")
+            .description("Time to recompute the seasonal patterns of one commodity")
+            .tag("job", job)
+            .tag("outcome", outcome.name().toLowerCase())
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        log.debug("Seasonal {} recomputation for commodity {}: {} with {} patterns in {}ms",
+                job, commodityId, outcome, patterns, durationMs);
+        return new CommodityResult(commodityId, outcome, patterns, durationMs);
+    }
+}
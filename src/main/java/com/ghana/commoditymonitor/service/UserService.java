@@ -20,6 +20,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final ReferenceDataCatalog referenceDataCatalog;
 
     /**
      * List all users in the system.
@@ -43,6 +44,7 @@ public class UserService {
         user.setActive(active);
         
         User savedUser = userRepository.save(user);
+        referenceDataCatalog.invalidateUser(userId);
         
         // If account was just activated, send the notification
         if (active && previouslyInactive) {
@@ -0,0 +1,49 @@
+package com.ghana.commoditymonitor.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Pass-through stream whose {@code close()} only flushes, so a wrapping encoder can be closed to
+ * write its trailer without closing the response. After {@link #detach()} writes are discarded,
+ * which lets a failed encoder be closed to free its native state without emitting a trailer.
+ */
+public class CloseShieldOutputStream extends FilterOutputStream {
+
+    private boolean detached;
+
+    public CloseShieldOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!detached) {
+            out.write(b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (!detached) {
+            out.write(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (!detached) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    public void detach() {
+        detached = true;
+    }
+}
@@ -4,8 +4,10 @@ import com.ghana.commoditymonitor.entity.*;
 import com.ghana.commoditymonitor.enums.Role;
 import com.ghana.commoditymonitor.enums.PriceRecordStatus;
 import com.ghana.commoditymonitor.repository.*;
+import com.ghana.commoditymonitor.service.ExportDataVersion;
 import com.ghana.commoditymonitor.service.MarketHealthScoreService;
-import com.ghana.commoditymonitor.service.SeasonalPatternService;
+import com.ghana.commoditymonitor.service.ReferenceDataCatalog;
+import com.ghana.commoditymonitor.service.SeasonalRecomputationRunner;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,7 +46,9 @@ public class DataSeeder implements CommandLineRunner {
     private final SeasonalPatternRepository seasonalPatternRepository;
     private final PasswordEncoder passwordEncoder;
     private final MarketHealthScoreService marketHealthScoreService;
-    private final SeasonalPatternService seasonalPatternService;
+    private final SeasonalRecomputationRunner seasonalRecomputationRunner;
+    private final ReferenceDataCatalog referenceDataCatalog;
+    private final ExportDataVersion exportDataVersion;
     private final TransactionTemplate transactionTemplate;
     private final DataSource dataSource;
 
@@ -100,6 +104,9 @@ public class DataSeeder implements CommandLineRunner {
         } else {
             log.info("Sufficient data exists. Skipping seeding.");
         }
+        // Seeding writes reference rows through the repositories directly, and prices through JDBC
+        referenceDataCatalog.invalidateAll();
+        exportDataVersion.advance();
         
         if (recomputeOnStartup) {
             log.info("Triggering recomputation of health scores and seasonal patterns...");
@@ -110,10 +117,16 @@ public class DataSeeder implements CommandLineRunner {
             }
 
             try {
-                seasonalPatternService.computeAllPatterns();
+                seasonalRecomputationRunner.recomputeAll();
             } catch (Exception e) {
                 log.error("Failed to compute all seasonal patterns during startup seeding", e);
             }
+
+            try {
+                seasonalRecomputationRunner.recomputeAllLocations();
+            } catch (Exception e) {
+                log.error("Failed to compute location seasonal patterns during startup seeding", e);
+            }
             log.info("Recomputation process finished.");
         } else {
             log.info("Startup recomputation is disabled via configuration.");
@@ -0,0 +1,73 @@
+package com.ghana.commoditymonitor.util;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Parquet {@link OutputFile} over an already open stream, such as a servlet response.
+ * <p>
+ * Parquet writes strictly sequentially (row groups, then the footer), so it only needs to know
+ * the current position, not to seek. Closing the Parquet stream flushes but leaves the underlying
+ * stream open for its owner to close.
+ * </p>
+ */
+public class OutputStreamOutputFile implements OutputFile {
+
+    private final OutputStream out;
+
+    public OutputStreamOutputFile(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) {
+        return new PositionOutputStream() {
+            private long position;
+
+            @Override
+            public long getPos() {
+                return position;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                position++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                position += len;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+        return create(blockSizeHint);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+        return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+        return 0;
+    }
+}
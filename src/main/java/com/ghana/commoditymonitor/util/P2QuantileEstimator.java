@@ -0,0 +1,113 @@
+package com.ghana.commoditymonitor.util;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile estimate in constant memory (the P² algorithm of Jain and Chlamtac).
+ * <p>
+ * Five markers track the minimum, the target quantile, the two quantiles halfway to it and the
+ * maximum; each observation nudges their heights along a parabolic fit. The first five
+ * observations are kept exactly, so small groups get an exact answer.
+ * </p>
+ */
+public class P2QuantileEstimator {
+
+    private final double quantile;
+    private final double[] heights = new double[5];
+    private final int[] positions = {0, 1, 2, 3, 4};
+    private final double[] desired;
+    private final double[] increments;
+    private long count;
+
+    public P2QuantileEstimator(double quantile) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got " + quantile);
+        }
+        this.quantile = quantile;
+        this.desired = new double[] {0, 2 * quantile, 4 * quantile, 2 + 2 * quantile, 4};
+        this.increments = new double[] {0, quantile / 2, quantile, (1 + quantile) / 2, 1};
+    }
+
+    public static P2QuantileEstimator median() {
+        return new P2QuantileEstimator(0.5);
+    }
+
+    public void add(double value) {
+        if (count < 5) {
+            heights[(int) count++] = value;
+            if (count == 5) {
+                Arrays.sort(heights);
+            }
+            return;
+        }
+
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[4]) {
+            heights[4] = value;
+            cell = 3;
+        } else {
+            cell = 0;
+            while (value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+
+        for (int i = cell + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            double offset = desired[i] - positions[i];
+            if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+                    || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = offset > 0 ? 1 : -1;
+                double candidate = parabolic(i, step);
+                heights[i] = heights[i - 1] < candidate && candidate < heights[i + 1]
+                        ? candidate
+                        : linear(i, step);
+                positions[i] += step;
+            }
+        }
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * The current estimate, or NaN before any observation.
+     */
+    public double getQuantile() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count <= 5) {
+            double[] sorted = Arrays.copyOf(heights, (int) count);
+            Arrays.sort(sorted);
+            double rank = quantile * (count - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = (int) Math.ceil(rank);
+            return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+        }
+        return heights[2];
+    }
+
+    private double parabolic(int i, int step) {
+        double spanBelow = positions[i] - positions[i - 1];
+        double spanAbove = positions[i + 1] - positions[i];
+        return heights[i] + step / (double) (positions[i + 1] - positions[i - 1])
+                * ((spanBelow + step) * (heights[i + 1] - heights[i]) / spanAbove
+                + (spanAbove - step) * (heights[i] - heights[i - 1]) / spanBelow);
+    }
+
+    private double linear(int i, int step) {
+        return heights[i] + step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+    }
+}
@@ -0,0 +1,2 @@
+-- Partial index backing the in-memory pending review queue; only rows awaiting review are indexed
+CREATE INDEX idx_price_records_pending_created_at ON price_records(created_at) WHERE status = 'PENDING';
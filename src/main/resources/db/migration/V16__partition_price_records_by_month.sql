@@ -0,0 +1,103 @@
+-- V16__partition_price_records_by_month.sql
+-- Converts price_records into monthly RANGE partitions on recorded_date so date-bounded
+-- analytics queries only scan the months they touch.
+
+-- 1. Keep the id sequence alive across the table swap
+ALTER SEQUENCE price_records_id_seq OWNED BY NONE;
+
+-- 2. Partitioned parent; the partition key must be part of the primary key
+CREATE TABLE price_records_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('price_records_id_seq'),
+    commodity_id BIGINT NOT NULL,
+    market_id BIGINT NOT NULL,
+    price NUMERIC(12,2) NOT NULL CHECK(price > 0),
+    recorded_date DATE NOT NULL,
+    source VARCHAR(200),
+    created_at TIMESTAMPTZ DEFAULT NOW(),
+    status VARCHAR(20) NOT NULL DEFAULT 'APPROVED',
+    submitted_by BIGINT,
+    reviewed_by BIGINT,
+    reviewed_at TIMESTAMPTZ,
+    rejection_reason VARCHAR(500),
+    PRIMARY KEY (id, recorded_date)
+) PARTITION BY RANGE (recorded_date);
+
+-- Catch-all for dates outside the pre-created months; ensure_price_records_partition drains it
+CREATE TABLE price_records_default PARTITION OF price_records_partitioned DEFAULT;
+
+-- 3. Creates the partition for the month containing p_month, moving any rows that already
+--    landed in the default partition. Returns false when the partition already exists.
+CREATE OR REPLACE FUNCTION ensure_price_records_partition(p_month DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_from DATE := date_trunc('month', p_month)::DATE;
+    v_to   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name TEXT := format('price_records_y%sm%s', to_char(v_from, 'YYYY'), to_char(v_from, 'MM'));
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE price_records INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM price_records_default WHERE recorded_date >= %L AND recorded_date < %L RETURNING *) '
+        'INSERT INTO %I SELECT * FROM moved', v_from, v_to, v_name);
+    EXECUTE format('ALTER TABLE price_records ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_name, v_from, v_to);
+    RETURN TRUE;
+END;
+$$;
+
+-- 4. Copy existing rows into the new parent (they land in the default partition for now)
+INSERT INTO price_records_partitioned (id, commodity_id, market_id, price, recorded_date, source, created_at,
+                                       status, submitted_by, reviewed_by, reviewed_at, rejection_reason)
+SELECT id, commodity_id, market_id, price, recorded_date, source, created_at,
+       status, submitted_by, reviewed_by, reviewed_at, rejection_reason
+FROM price_records;
+
+-- 5. Swap. Audits can no longer reference price_records(id) alone; PriceRecordService removes
+--    a record's audit rows when the record is deleted.
+ALTER TABLE price_record_audits DROP CONSTRAINT fk_audit_price_record;
+DROP TABLE price_records;
+ALTER TABLE price_records_partitioned RENAME TO price_records;
+ALTER SEQUENCE price_records_id_seq OWNED BY price_records.id;
+ALTER TABLE price_records RENAME CONSTRAINT price_records_partitioned_pkey TO price_records_pkey;
+ALTER TABLE price_records RENAME CONSTRAINT price_records_partitioned_price_check TO price_records_price_check;
+
+ALTER TABLE price_records
+    ADD CONSTRAINT fk_price_records_commodity FOREIGN KEY (commodity_id) REFERENCES commodities(id),
+    ADD CONSTRAINT fk_price_records_market FOREIGN KEY (market_id) REFERENCES markets(id),
+    ADD CONSTRAINT fk_price_records_submitted_by FOREIGN KEY (submitted_by) REFERENCES users(id),
+    ADD CONSTRAINT fk_price_records_reviewed_by FOREIGN KEY (reviewed_by) REFERENCES users(id),
+    ADD CONSTRAINT chk_price_records_status CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED'));
+
+-- 6. Monthly partitions from the oldest data month (capped at ten years back, or 24 months back
+--    for an empty table) through three months ahead; older rows stay in the default partition
+DO $$
+DECLARE
+    v_month TIMESTAMPTZ;
+BEGIN
+    FOR v_month IN
+        SELECT generate_series(
+            GREATEST(
+                COALESCE((SELECT date_trunc('month', MIN(recorded_date)) FROM price_records),
+                         date_trunc('month', CURRENT_DATE) - INTERVAL '24 months'),
+                date_trunc('month', CURRENT_DATE) - INTERVAL '10 years'),
+            date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+            INTERVAL '1 month')
+    LOOP
+        PERFORM ensure_price_records_partition(v_month::DATE);
+    END LOOP;
+END;
+$$;
+
+-- 7. Indexes are declared on the parent and cascade to every partition
+CREATE INDEX idx_price_records_commodity_date ON price_records(commodity_id, recorded_date);
+CREATE INDEX idx_price_records_market_date ON price_records(market_id, recorded_date);
+CREATE INDEX idx_price_records_status ON price_records(status);
+CREATE INDEX idx_price_records_submitted_by ON price_records(submitted_by);
+CREATE INDEX idx_price_records_reviewed_by ON price_records(reviewed_by);
+CREATE INDEX idx_price_records_pending_created_at ON price_records(created_at) WHERE status = 'PENDING';
+
+ANALYZE price_records;
@@ -0,0 +1,17 @@
+-- Export logs double as export jobs: asynchronous exports move through QUEUED -> RUNNING -> COMPLETED/FAILED
+-- and their spooled artifact is purged (EXPIRED) after a retention window. Synchronous exports are COMPLETED.
+ALTER TABLE export_logs
+    ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED',
+    ADD COLUMN started_at TIMESTAMPTZ,
+    ADD COLUMN completed_at TIMESTAMPTZ,
+    ADD COLUMN duration_ms BIGINT,
+    ADD COLUMN artifact_path VARCHAR(500),
+    ADD COLUMN expires_at TIMESTAMPTZ,
+    ADD COLUMN error_message VARCHAR(500),
+    ADD CONSTRAINT chk_export_logs_status CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED', 'EXPIRED'));
+
+ALTER TABLE export_logs ALTER COLUMN row_count SET DEFAULT 0;
+ALTER TABLE export_logs ALTER COLUMN file_size SET DEFAULT 0;
+
+-- Artifact purge scans completed jobs by expiry
+CREATE INDEX idx_export_logs_artifact_expiry ON export_logs(expires_at) WHERE artifact_path IS NOT NULL;
@@ -0,0 +1,6 @@
+-- Streamed exports may be compressed in transit: file_size is the bytes sent, raw_size the uncompressed bytes
+ALTER TABLE export_logs
+    ADD COLUMN raw_size BIGINT,
+    ADD COLUMN content_encoding VARCHAR(10);
+
+UPDATE export_logs SET raw_size = file_size;
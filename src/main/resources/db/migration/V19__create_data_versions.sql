@@ -0,0 +1,44 @@
+-- Monotonic version of the data that exports are built from. Any write to price_records, or to the
+-- reference names exports denormalize, bumps it, so a cached export built at version N is valid
+-- exactly while the version is still N.
+CREATE TABLE data_versions (
+    name VARCHAR(50) PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO data_versions (name) VALUES ('price_records');
+
+CREATE OR REPLACE FUNCTION bump_price_records_data_version()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE data_versions SET version = version + 1, updated_at = NOW() WHERE name = 'price_records';
+    RETURN NULL;
+END;
+$$;
+
+-- Statement-level, so a bulk write costs one bump rather than one per row
+CREATE TRIGGER trg_price_records_data_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON price_records
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_price_records_data_version();
+
+CREATE TRIGGER trg_commodities_data_version
+    AFTER INSERT OR UPDATE OR DELETE ON commodities
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_price_records_data_version();
+
+CREATE TRIGGER trg_markets_data_version
+    AFTER INSERT OR UPDATE OR DELETE ON markets
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_price_records_data_version();
+
+CREATE TRIGGER trg_cities_data_version
+    AFTER INSERT OR UPDATE OR DELETE ON cities
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_price_records_data_version();
+
+-- Exports only show usernames, so other user updates leave cached exports valid
+CREATE TRIGGER trg_users_data_version
+    AFTER UPDATE OF username ON users
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_price_records_data_version();
+
+ALTER TABLE export_logs ADD COLUMN cache_hit BOOLEAN NOT NULL DEFAULT FALSE;
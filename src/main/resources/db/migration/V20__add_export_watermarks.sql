@@ -0,0 +1,12 @@
+-- Delta exports: each completed export records a hash of its filters and the instant its data was
+-- read (watermark), so a later export of the same filters can fetch only what changed since.
+ALTER TABLE export_logs
+    ADD COLUMN filter_hash VARCHAR(64),
+    ADD COLUMN watermark TIMESTAMPTZ;
+
+CREATE INDEX idx_export_logs_user_filter_watermark
+    ON export_logs(user_id, filter_hash, watermark DESC) WHERE watermark IS NOT NULL;
+
+-- Records become visible to a delta export when created (already approved) or when approved
+CREATE INDEX idx_price_records_approved_created_at ON price_records(created_at) WHERE status = 'APPROVED';
+CREATE INDEX idx_price_records_approved_reviewed_at ON price_records(reviewed_at) WHERE status = 'APPROVED';
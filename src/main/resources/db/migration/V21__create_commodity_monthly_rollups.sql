@@ -0,0 +1,115 @@
+-- V21__create_commodity_monthly_rollups.sql
+-- Per-commodity, per-calendar-month sum/count of approved prices, kept current by triggers on
+-- price_records. Seasonal patterns are derived from these accumulators instead of rescanning
+-- price_records, and only commodities queued by a change are recomputed.
+
+CREATE TABLE commodity_monthly_rollups (
+    commodity_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    price_sum NUMERIC NOT NULL,
+    record_count BIGINT NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (commodity_id, month_start),
+    CONSTRAINT fk_rollup_commodity FOREIGN KEY (commodity_id) REFERENCES commodities(id) ON DELETE CASCADE
+);
+
+-- Commodities whose rollups changed since their seasonal patterns were last computed
+CREATE TABLE seasonal_pattern_refresh_queue (
+    commodity_id BIGINT PRIMARY KEY,
+    queued_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT fk_refresh_queue_commodity FOREIGN KEY (commodity_id) REFERENCES commodities(id) ON DELETE CASCADE
+);
+
+INSERT INTO commodity_monthly_rollups (commodity_id, month_start, price_sum, record_count)
+SELECT commodity_id, date_trunc('month', recorded_date)::DATE, SUM(price), COUNT(*)
+FROM price_records
+WHERE status = 'APPROVED'
+GROUP BY commodity_id, date_trunc('month', recorded_date);
+
+INSERT INTO seasonal_pattern_refresh_queue (commodity_id)
+SELECT DISTINCT commodity_id FROM commodity_monthly_rollups;
+
+-- Applies the approved rows entering (+) and leaving (-) through the statement's transition tables.
+-- Rows are upserted in key order so concurrent writers lock them in the same order. The queue row
+-- is updated rather than skipped on conflict so that a refresh holding it waits for this commit.
+CREATE OR REPLACE FUNCTION maintain_commodity_monthly_rollups()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_changes TEXT;
+BEGIN
+    v_changes := CASE TG_OP
+        WHEN 'INSERT' THEN
+            'SELECT commodity_id, recorded_date, price, 1 AS sign FROM new_rows WHERE status = ''APPROVED'''
+        WHEN 'DELETE' THEN
+            'SELECT commodity_id, recorded_date, price, -1 AS sign FROM old_rows WHERE status = ''APPROVED'''
+        ELSE
+            'SELECT commodity_id, recorded_date, price, 1 AS sign FROM new_rows WHERE status = ''APPROVED'' '
+            'UNION ALL '
+            'SELECT commodity_id, recorded_date, price, -1 AS sign FROM old_rows WHERE status = ''APPROVED'''
+    END;
+
+    EXECUTE format($sql$
+        WITH deltas AS (
+            SELECT commodity_id,
+                   date_trunc('month', recorded_date)::DATE AS month_start,
+                   SUM(sign * price) AS price_delta,
+                   SUM(sign) AS count_delta
+            FROM (%s) changes
+            GROUP BY commodity_id, date_trunc('month', recorded_date)
+            HAVING SUM(sign * price) <> 0 OR SUM(sign) <> 0
+        ),
+        applied AS (
+            INSERT INTO commodity_monthly_rollups (commodity_id, month_start, price_sum, record_count)
+            SELECT commodity_id, month_start, price_delta, count_delta
+            FROM deltas
+            ORDER BY commodity_id, month_start
+            ON CONFLICT (commodity_id, month_start) DO UPDATE SET
+                price_sum = commodity_monthly_rollups.price_sum + EXCLUDED.price_sum,
+                record_count = commodity_monthly_rollups.record_count + EXCLUDED.record_count,
+                updated_at = NOW()
+            RETURNING commodity_id
+        )
+        INSERT INTO seasonal_pattern_refresh_queue (commodity_id)
+        SELECT DISTINCT commodity_id FROM applied
+        ORDER BY commodity_id
+        ON CONFLICT (commodity_id) DO UPDATE SET queued_at = NOW()
+        $sql$, v_changes);
+
+    RETURN NULL;
+END;
+$$;
+
+-- Transition tables allow one event per trigger; on the partitioned parent they include every partition
+CREATE TRIGGER trg_price_records_rollup_insert
+    AFTER INSERT ON price_records
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION maintain_commodity_monthly_rollups();
+
+CREATE TRIGGER trg_price_records_rollup_update
+    AFTER UPDATE ON price_records
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION maintain_commodity_monthly_rollups();
+
+CREATE TRIGGER trg_price_records_rollup_delete
+    AFTER DELETE ON price_records
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION maintain_commodity_monthly_rollups();
+
+CREATE OR REPLACE FUNCTION clear_commodity_monthly_rollups()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO seasonal_pattern_refresh_queue (commodity_id)
+    SELECT DISTINCT commodity_id FROM commodity_monthly_rollups
+    ON CONFLICT (commodity_id) DO UPDATE SET queued_at = NOW();
+    DELETE FROM commodity_monthly_rollups;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_price_records_rollup_truncate
+    AFTER TRUNCATE ON price_records
+    FOR EACH STATEMENT EXECUTE FUNCTION clear_commodity_monthly_rollups();
@@ -0,0 +1,16 @@
+-- V22__create_seasonal_location_patterns.sql
+-- Seasonal patterns per commodity and city or market. One row holds a whole series: element i of
+-- each array is month i (1-based), NULL where the location has no prices for that month.
+CREATE TABLE seasonal_location_patterns (
+    commodity_id BIGINT NOT NULL,
+    scope VARCHAR(10) NOT NULL CHECK (scope IN ('CITY', 'MARKET')),
+    location_id BIGINT NOT NULL,
+    seasonal_indices NUMERIC(6, 4)[] NOT NULL CHECK (cardinality(seasonal_indices) = 12),
+    avg_prices NUMERIC(12, 2)[] NOT NULL CHECK (cardinality(avg_prices) = 12),
+    sample_sizes INTEGER[] NOT NULL CHECK (cardinality(sample_sizes) = 12),
+    data_year_from SMALLINT NOT NULL,
+    data_year_to SMALLINT NOT NULL,
+    computed_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (commodity_id, scope, location_id),
+    CONSTRAINT fk_location_seasonal_commodity FOREIGN KEY (commodity_id) REFERENCES commodities(id) ON DELETE CASCADE
+);
@@ -0,0 +1,6 @@
+-- V23__add_detrended_seasonal_index.sql
+-- Seasonal index with the multi-year trend removed (2x12 moving average), and the strength of
+-- seasonality in [0, 1] as its confidence. Both stay NULL until a commodity has 24 months of data.
+ALTER TABLE seasonal_patterns
+    ADD COLUMN detrended_index DECIMAL(6, 4),
+    ADD COLUMN seasonal_confidence DECIMAL(5, 4) CHECK (seasonal_confidence BETWEEN 0 AND 1);
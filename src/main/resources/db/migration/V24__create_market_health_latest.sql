@@ -0,0 +1,53 @@
+-- V24__create_market_health_latest.sql
+-- Latest health score per market, kept current by a trigger on market_health_scores. Ranking,
+-- grade and histogram reads use its indexes instead of picking the newest row per market out of
+-- the whole score history.
+
+CREATE TABLE market_health_latest (
+    market_id BIGINT PRIMARY KEY,
+    score DECIMAL(5, 2) NOT NULL,
+    data_freshness DECIMAL(5, 2) NOT NULL,
+    price_stability DECIMAL(5, 2) NOT NULL,
+    coverage DECIMAL(5, 2) NOT NULL,
+    grade VARCHAR(1) NOT NULL,
+    computed_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT fk_health_latest_market FOREIGN KEY (market_id) REFERENCES markets(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_health_latest_score ON market_health_latest(score DESC, market_id);
+CREATE INDEX idx_health_latest_grade_score ON market_health_latest(grade, score DESC, market_id);
+
+INSERT INTO market_health_latest (market_id, score, data_freshness, price_stability, coverage, grade, computed_at)
+SELECT DISTINCT ON (market_id)
+    market_id, score, data_freshness, price_stability, coverage, grade, computed_at
+FROM market_health_scores
+ORDER BY market_id, computed_at DESC, id DESC;
+
+-- Takes the newest of the statement's rows per market; an older score never replaces a newer one
+CREATE OR REPLACE FUNCTION maintain_market_health_latest()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO market_health_latest (market_id, score, data_freshness, price_stability, coverage, grade, computed_at)
+    SELECT DISTINCT ON (market_id)
+        market_id, score, data_freshness, price_stability, coverage, grade, computed_at
+    FROM new_rows
+    ORDER BY market_id, computed_at DESC, id DESC
+    ON CONFLICT (market_id) DO UPDATE SET
+        score = EXCLUDED.score,
+        data_freshness = EXCLUDED.data_freshness,
+        price_stability = EXCLUDED.price_stability,
+        coverage = EXCLUDED.coverage,
+        grade = EXCLUDED.grade,
+        computed_at = EXCLUDED.computed_at
+    WHERE market_health_latest.computed_at <= EXCLUDED.computed_at;
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_market_health_scores_latest
+    AFTER INSERT ON market_health_scores
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION maintain_market_health_latest();
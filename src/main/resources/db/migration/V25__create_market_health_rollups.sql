@@ -0,0 +1,26 @@
+-- V25__create_market_health_rollups.sql
+-- Downsampled market health history. Scores older than the raw retention window are folded into
+-- one WEEKLY row per market and week, and weeks older than the weekly window into one MONTHLY
+-- row per market and month, so long-range trends survive at a fixed size per market.
+
+CREATE TABLE market_health_rollups (
+    market_id BIGINT NOT NULL,
+    resolution VARCHAR(10) NOT NULL CHECK (resolution IN ('WEEKLY', 'MONTHLY')),
+    period_start DATE NOT NULL,
+    avg_score DECIMAL(5, 2) NOT NULL,
+    min_score DECIMAL(5, 2) NOT NULL,
+    max_score DECIMAL(5, 2) NOT NULL,
+    avg_data_freshness DECIMAL(5, 2) NOT NULL,
+    avg_price_stability DECIMAL(5, 2) NOT NULL,
+    avg_coverage DECIMAL(5, 2) NOT NULL,
+    samples INTEGER NOT NULL CHECK (samples > 0),
+    PRIMARY KEY (market_id, resolution, period_start),
+    CONSTRAINT fk_health_rollup_market FOREIGN KEY (market_id) REFERENCES markets(id) ON DELETE CASCADE
+);
+
+-- Serves the history range scan and the weekly-to-monthly roll-up
+CREATE INDEX idx_health_rollup_resolution_period ON market_health_rollups(resolution, period_start);
+
+-- Score history reads one market over a date range
+CREATE INDEX idx_health_market_computed_at ON market_health_scores(market_id, computed_at);
+DROP INDEX idx_health_market_id;
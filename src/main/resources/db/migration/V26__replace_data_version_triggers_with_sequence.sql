@@ -0,0 +1,22 @@
+-- V26__replace_data_version_triggers_with_sequence.sql
+-- The export data version moves from a single data_versions row, bumped by statement triggers on
+-- every write, to a sequence the application advances after each committing write. Every writer
+-- updating the same row serialized all writes to price_records and the reference tables on its
+-- lock; nextval never blocks, and bumping after commit means a version is only ever observed
+-- together with the data it covers.
+
+DROP TRIGGER IF EXISTS trg_price_records_data_version ON price_records;
+DROP TRIGGER IF EXISTS trg_commodities_data_version ON commodities;
+DROP TRIGGER IF EXISTS trg_markets_data_version ON markets;
+DROP TRIGGER IF EXISTS trg_cities_data_version ON cities;
+DROP TRIGGER IF EXISTS trg_users_data_version ON users;
+DROP FUNCTION IF EXISTS bump_price_records_data_version();
+
+CREATE SEQUENCE export_data_version_seq;
+
+-- Continue from the old counter so versions never repeat
+SELECT setval('export_data_version_seq', GREATEST(version, 1))
+FROM data_versions
+WHERE name = 'price_records';
+
+DROP TABLE data_versions;
@@ -0,0 +1,76 @@
+-- V27__append_rollup_deltas_instead_of_upserting.sql
+-- The price_records triggers no longer upsert commodity_monthly_rollups and the refresh queue,
+-- whose rows every writer of a commodity then held locked until commit. They append the
+-- statement's net (commodity, month) changes to commodity_monthly_rollup_deltas instead, which
+-- never conflicts, and the application folds pending deltas into the rollups before recomputing a
+-- commodity and during the nightly refresh. A commodity with pending deltas is due a refresh, so
+-- the queue table goes away.
+
+CREATE TABLE commodity_monthly_rollup_deltas (
+    commodity_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    price_delta NUMERIC NOT NULL,
+    count_delta BIGINT NOT NULL,
+    recorded_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_rollup_deltas_commodity ON commodity_monthly_rollup_deltas (commodity_id);
+
+-- Commodities still queued become zero deltas, so the next refresh recomputes them
+INSERT INTO commodity_monthly_rollup_deltas (commodity_id, month_start, price_delta, count_delta)
+SELECT commodity_id, date_trunc('month', NOW())::DATE, 0, 0
+FROM seasonal_pattern_refresh_queue;
+
+DROP TABLE seasonal_pattern_refresh_queue;
+
+CREATE OR REPLACE FUNCTION maintain_commodity_monthly_rollups()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_changes TEXT;
+BEGIN
+    v_changes := CASE TG_OP
+        WHEN 'INSERT' THEN
+            'SELECT commodity_id, recorded_date, price, 1 AS sign FROM new_rows WHERE status = ''APPROVED'''
+        WHEN 'DELETE' THEN
+            'SELECT commodity_id, recorded_date, price, -1 AS sign FROM old_rows WHERE status = ''APPROVED'''
+        ELSE
+            'SELECT commodity_id, recorded_date, price, 1 AS sign FROM new_rows WHERE status = ''APPROVED'' '
+            'UNION ALL '
+            'SELECT commodity_id, recorded_date, price, -1 AS sign FROM old_rows WHERE status = ''APPROVED'''
+    END;
+
+    EXECUTE format($sql$
+        INSERT INTO commodity_monthly_rollup_deltas (commodity_id, month_start, price_delta, count_delta)
+        SELECT commodity_id,
+               date_trunc('month', recorded_date)::DATE,
+               SUM(sign * price),
+               SUM(sign)
+        FROM (%s) changes
+        GROUP BY commodity_id, date_trunc('month', recorded_date)
+        HAVING SUM(sign * price) <> 0 OR SUM(sign) <> 0
+        $sql$, v_changes);
+
+    RETURN NULL;
+END;
+$$;
+
+-- Cancels the rollups and every pending delta, so the next fold leaves each month at zero
+CREATE OR REPLACE FUNCTION clear_commodity_monthly_rollups()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO commodity_monthly_rollup_deltas (commodity_id, month_start, price_delta, count_delta)
+    SELECT commodity_id, month_start, -SUM(price_sum), -SUM(record_count)
+    FROM (
+        SELECT commodity_id, month_start, price_sum, record_count FROM commodity_monthly_rollups
+        UNION ALL
+        SELECT commodity_id, month_start, price_delta, count_delta FROM commodity_monthly_rollup_deltas
+    ) current_totals
+    GROUP BY commodity_id, month_start
+    HAVING SUM(price_sum) <> 0 OR SUM(record_count) <> 0;
+    RETURN NULL;
+END;
+$$;
@@ -0,0 +1,117 @@
+package com.ghana.commoditymonitor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ghana.commoditymonitor.dto.request.ExportRequestDto;
+import com.ghana.commoditymonitor.enums.ExportType;
+import com.ghana.commoditymonitor.enums.Role;
+import com.ghana.commoditymonitor.repository.ExportLogRepository;
+import com.ghana.commoditymonitor.repository.PriceRecordExportRepository;
+import com.ghana.commoditymonitor.repository.PriceRecordRepository;
+import com.ghana.commoditymonitor.repository.UserRepository;
+import com.ghana.commoditymonitor.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests checking that an export request plans its size at most once on the way through
+ * routing and validation. The size estimator is real, over a mocked repository.
+ */
+@ExtendWith(MockitoExtension.class)
+class DataExportServiceSizeCheckTest {
+
+    private static final long SYNC_ROW_LIMIT = 25_000;
+    private static final UserPrincipal ANALYST = new UserPrincipal(1L, "analyst", Role.ANALYST);
+
+    @Mock
+    private PriceRecordRepository priceRecordRepository;
+    @Mock
+    private ExportLogRepository exportLogRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ReferenceDataCatalog referenceDataCatalog;
+    @Mock
+    private PriceRecordExportRepository priceRecordExportRepository;
+    @Mock
+    private ExportResultCache exportResultCache;
+    @Mock
+    private ExcelWorkbookRenderer excelWorkbookRenderer;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Spy
+    @InjectMocks
+    private ExportSizeEstimator exportSizeEstimator;
+
+    private DataExportService dataExportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportSizeEstimator, "uncertaintyFactor", 3.0);
+        // Built by hand: @InjectMocks does not order two injected fields, so the estimator could still be null
+        dataExportService = new DataExportService(priceRecordRepository, exportLogRepository, userRepository,
+            referenceDataCatalog, priceRecordExportRepository, exportResultCache, exportSizeEstimator,
+            excelWorkbookRenderer, transactionTemplate, objectMapper);
+        ReflectionTestUtils.setField(dataExportService, "excelSyncRowLimit", SYNC_ROW_LIMIT);
+    }
+
+    @Test
+    void excelExport_WithClearEstimate_ShouldExplainOnceAndNeverCount() {
+        when(priceRecordExportRepository.estimateApproved(any())).thenReturn(1_000L);
+
+        ExportRequestDto request = request(ExportType.EXCEL);
+        assertThat(dataExportService.requiresBackgroundJob(request)).isFalse();
+        dataExportService.exportPriceRecords(request, ANALYST, "127.0.0.1", null);
+
+        verify(exportSizeEstimator, times(1)).check(any(), anyLong());
+        verify(priceRecordExportRepository, times(1)).estimateApproved(any());
+        verify(priceRecordExportRepository, never()).countApproved(any(), anyLong());
+    }
+
+    @Test
+    void excelExport_WithEstimateNearLimit_ShouldCountOnce() {
+        when(priceRecordExportRepository.estimateApproved(any())).thenReturn(20_000L);
+        when(priceRecordExportRepository.countApproved(any(), anyLong())).thenReturn(SYNC_ROW_LIMIT + 1);
+
+        ExportRequestDto request = request(ExportType.EXCEL);
+        assertThat(dataExportService.requiresBackgroundJob(request)).isTrue();
+        // Job submission validates the request again before queueing it
+        dataExportService.validateRequest(request);
+
+        verify(exportSizeEstimator, times(1)).check(any(), anyLong());
+        verify(priceRecordExportRepository, times(1)).estimateApproved(any());
+        verify(priceRecordExportRepository, times(1)).countApproved(any(), anyLong());
+    }
+
+    @Test
+    void streamedExport_ShouldNotPlanItsSize() {
+        ExportRequestDto request = request(ExportType.CSV);
+        assertThat(dataExportService.requiresBackgroundJob(request)).isFalse();
+        dataExportService.exportPriceRecords(request, ANALYST, "127.0.0.1", "gzip");
+
+        verify(exportSizeEstimator, never()).check(any(), anyLong());
+        verify(priceRecordExportRepository, never()).estimateApproved(any());
+        verify(priceRecordExportRepository, never()).countApproved(any(), anyLong());
+    }
+
+    private static ExportRequestDto request(ExportType type) {
+        return new ExportRequestDto(null, null, null, null, null, type, false, null, null);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ghana.commoditymonitor.service;
+
+import com.ghana.commoditymonitor.dto.projection.PriceRecordExportView;
+import com.ghana.commoditymonitor.enums.PriceRecordStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for MonthlySummaryAccumulator against exact per-group statistics.
+ */
+class MonthlySummaryAccumulatorTest {
+
+    private static final LocalDate JAN = LocalDate.of(2025, 1, 15);
+    private static final LocalDate FEB = LocalDate.of(2025, 2, 10);
+
+    @Test
+    void groups_WithNoRows_ShouldBeEmpty() {
+        assertThat(new MonthlySummaryAccumulator().groups()).isEmpty();
+    }
+
+    @Test
+    void groups_ShouldBeOrderedByCommodityThenMonth() {
+        MonthlySummaryAccumulator summary = new MonthlySummaryAccumulator();
+        summary.add(row("Yam", FEB, "10.00"));
+        summary.add(row("Maize", FEB, "5.00"));
+        summary.add(row("Yam", JAN, "9.00"));
+        summary.add(row("Maize", JAN, "4.00"));
+
+        assertThat(summary.groups().keySet()).containsExactly(
+            new MonthlySummaryAccumulator.Key("Maize", YearMonth.of(2025, 1)),
+            new MonthlySummaryAccumulator.Key("Maize", YearMonth.of(2025, 2)),
+            new MonthlySummaryAccumulator.Key("Yam", YearMonth.of(2025, 1)),
+            new MonthlySummaryAccumulator.Key("Yam", YearMonth.of(2025, 2)));
+    }
+
+    @Test
+    void stats_WithSinglePrice_ShouldReportItForEveryStatistic() {
+        MonthlySummaryAccumulator summary = new MonthlySummaryAccumulator();
+        summary.add(row("Maize", JAN, "12.34"));
+
+        MonthlySummaryAccumulator.Stats stats = onlyGroup(summary);
+        assertThat(stats.count()).isEqualTo(1);
+        assertThat(stats.average()).isEqualByComparingTo("12.34");
+        assertThat(stats.min()).isEqualByComparingTo("12.34");
+        assertThat(stats.max()).isEqualByComparingTo("12.34");
+        assertThat(stats.median()).isEqualByComparingTo("12.34");
+    }
+
+    @Test
+    void stats_WithFewerThanFivePrices_ShouldReportExactMedian() {
+        MonthlySummaryAccumulator summary = new MonthlySummaryAccumulator();
+        for (String price : new String[] {"8.00", "2.00", "6.00", "4.00"}) {
+            summary.add(row("Maize", JAN, price));
+        }
+
+        MonthlySummaryAccumulator.Stats stats = onlyGroup(summary);
+        assertThat(stats.median()).isEqualByComparingTo("5.00");
+        assertThat(stats.average()).isEqualByComparingTo("5.00");
+        assertThat(stats.min()).isEqualByComparingTo("2.00");
+        assertThat(stats.max()).isEqualByComparingTo("8.00");
+    }
+
+    @Test
+    void stats_WithManyPrices_ShouldMatchExactStatistics() {
+        Random random = new Random(5);
+        MonthlySummaryAccumulator summary = new MonthlySummaryAccumulator();
+        List<BigDecimal> prices = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            BigDecimal price = BigDecimal.valueOf(40 + 6 * random.nextGaussian()).setScale(2, RoundingMode.HALF_UP);
+            prices.add(price);
+            summary.add(row("Maize", JAN, price.toPlainString()));
+        }
+        prices.sort(null);
+
+        BigDecimal sum = prices.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal mean = sum.divide(BigDecimal.valueOf(prices.size()), 10, RoundingMode.HALF_UP);
+        double exactMedian = (prices.get(2_499).doubleValue() + prices.get(2_500).doubleValue()) / 2;
+
+        MonthlySummaryAccumulator.Stats stats = onlyGroup(summary);
+        assertThat(stats.count()).isEqualTo(prices.size());
+        assertThat(stats.average()).isEqualByComparingTo(mean.setScale(2, RoundingMode.HALF_UP));
+        assertThat(stats.min()).isEqualByComparingTo(prices.get(0));
+        assertThat(stats.max()).isEqualByComparingTo(prices.get(prices.size() - 1));
+        assertThat(stats.median().doubleValue()).isCloseTo(exactMedian, within(0.25));
+    }
+
+    @Test
+    void add_ShouldRoundPricesToPesewas() {
+        MonthlySummaryAccumulator summary = new MonthlySummaryAccumulator();
+        summary.add(row("Maize", JAN, "1.005"));
+        summary.add(row("Maize", JAN, "1.004"));
+
+        MonthlySummaryAccumulator.Stats stats = onlyGroup(summary);
+        assertThat(stats.max()).isEqualByComparingTo("1.01");
+        assertThat(stats.min()).isEqualByComparingTo("1.00");
+    }
+
+    private static MonthlySummaryAccumulator.Stats onlyGroup(MonthlySummaryAccumulator summary) {
+        assertThat(summary.groups()).hasSize(1);
+        return summary.groups().values().iterator().next();
+    }
+
+    private static PriceRecordExportView row(String commodity, LocalDate date, String price) {
+        return new PriceRecordExportView(1L, commodity, "Grains", "kg", "Makola", "Accra",
+            new BigDecimal(price), date, "MANUAL", "admin", PriceRecordStatus.APPROVED);
+    }
+}
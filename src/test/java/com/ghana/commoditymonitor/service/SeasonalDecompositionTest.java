@@ -0,0 +1,141 @@
+package com.ghana.commoditymonitor.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for SeasonalDecomposition on synthetic monthly series with a known seasonal pattern.
+ */
+class SeasonalDecompositionTest {
+
+    private static final double ANNUAL_INFLATION = 0.02;
+
+    /** Lean season prices peak mid-year; normalised to average 1 below. */
+    private static final double[] TRUE_INDICES = normalise(new double[] {
+        0.90, 0.88, 0.92, 0.98, 1.05, 1.12, 1.18, 1.15, 1.04, 0.97, 0.93, 0.91
+    });
+
+    @Test
+    void decompose_WithInflatedSeasonalSeries_ShouldRecoverSeasonalIndices() {
+        double[] prices = series(60, 1, TRUE_INDICES, ANNUAL_INFLATION);
+
+        SeasonalDecomposition.Result result = SeasonalDecomposition.decompose(prices, 1).orElseThrow();
+
+        for (int m = 0; m < 12; m++) {
+            assertThat(result.seasonalIndices()[m]).as("month %d", m + 1).isCloseTo(TRUE_INDICES[m], within(0.005));
+        }
+        assertThat(result.confidence()).isGreaterThan(0.99);
+    }
+
+    @Test
+    void decompose_WithInflationOnly_ShouldFindNoSeasonality() {
+        double[] prices = series(60, 1, normalise(new double[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}), ANNUAL_INFLATION);
+
+        SeasonalDecomposition.Result result = SeasonalDecomposition.decompose(prices, 1).orElseThrow();
+
+        // A plain average-by-month ratio would make December about 2% dearer than January here
+        for (double index : result.seasonalIndices()) {
+            assertThat(index).isCloseTo(1.0, within(0.001));
+        }
+    }
+
+    @Test
+    void decompose_WithSeriesStartingMidYear_ShouldReturnIndicesJanuaryFirst() {
+        double[] prices = series(48, 7, TRUE_INDICES, ANNUAL_INFLATION);
+
+        SeasonalDecomposition.Result result = SeasonalDecomposition.decompose(prices, 7).orElseThrow();
+
+        for (int m = 0; m < 12; m++) {
+            assertThat(result.seasonalIndices()[m]).as("month %d", m + 1).isCloseTo(TRUE_INDICES[m], within(0.005));
+        }
+    }
+
+    @Test
+    void decompose_WithFewerThanMinMonths_ShouldReturnEmpty() {
+        double[] prices = series(SeasonalDecomposition.MIN_MONTHS - 1, 1, TRUE_INDICES, ANNUAL_INFLATION);
+
+        assertThat(SeasonalDecomposition.decompose(prices, 1)).isEmpty();
+        assertThat(SeasonalDecomposition.decompose(new double[0], 1)).isEmpty();
+    }
+
+    @Test
+    void decompose_WithExactlyMinMonths_ShouldReturnResult() {
+        double[] prices = series(SeasonalDecomposition.MIN_MONTHS, 1, TRUE_INDICES, ANNUAL_INFLATION);
+
+        assertThat(SeasonalDecomposition.decompose(prices, 1)).isPresent();
+    }
+
+    @Test
+    void decompose_WithMissingInteriorMonths_ShouldStillRecoverSeasonalIndices() {
+        double[] prices = series(60, 1, TRUE_INDICES, ANNUAL_INFLATION);
+        prices[14] = Double.NaN;
+        prices[15] = Double.NaN;
+        prices[31] = Double.NaN;
+        prices[44] = Double.NaN;
+
+        SeasonalDecomposition.Result result = SeasonalDecomposition.decompose(prices, 1).orElseThrow();
+
+        for (int m = 0; m < 12; m++) {
+            assertThat(result.seasonalIndices()[m]).as("month %d", m + 1).isCloseTo(TRUE_INDICES[m], within(0.02));
+        }
+        double sum = 0;
+        for (double index : result.seasonalIndices()) {
+            sum += index;
+        }
+        assertThat(sum).isCloseTo(12.0, within(1e-9));
+    }
+
+    @Test
+    void decompose_WhenACalendarMonthHasNoRatio_ShouldReturnEmpty() {
+        // With 24 months each calendar month has exactly one full trend window, at t = 6..17
+        double[] prices = series(SeasonalDecomposition.MIN_MONTHS, 1, TRUE_INDICES, ANNUAL_INFLATION);
+        prices[10] = Double.NaN;
+
+        Optional<SeasonalDecomposition.Result> result = SeasonalDecomposition.decompose(prices, 1);
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void decompose_WithNoiseOnly_ShouldReportLowConfidence() {
+        Random random = new Random(17);
+        double[] prices = new double[72];
+        for (int t = 0; t < prices.length; t++) {
+            prices[t] = 30 * (1 + 0.05 * random.nextGaussian());
+        }
+
+        SeasonalDecomposition.Result result = SeasonalDecomposition.decompose(prices, 1).orElseThrow();
+
+        assertThat(result.confidence()).isBetween(0.0, 0.4);
+    }
+
+    /**
+     * {@code months} of prices starting in calendar month {@code firstMonthOfYear}, compounding
+     * {@code annualInflation} monthly on a base of 25.
+     */
+    private static double[] series(int months, int firstMonthOfYear, double[] indices, double annualInflation) {
+        double monthlyGrowth = Math.pow(1 + annualInflation, 1.0 / 12);
+        double[] prices = new double[months];
+        for (int t = 0; t < months; t++) {
+            prices[t] = 25 * Math.pow(monthlyGrowth, t) * indices[(firstMonthOfYear - 1 + t) % 12];
+        }
+        return prices;
+    }
+
+    private static double[] normalise(double[] indices) {
+        double sum = 0;
+        for (double index : indices) {
+            sum += index;
+        }
+        double[] normalised = new double[indices.length];
+        for (int m = 0; m < indices.length; m++) {
+            normalised[m] = indices[m] * indices.length / sum;
+        }
+        return normalised;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ghana.commoditymonitor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for P2QuantileEstimator against exact quantiles of known distributions.
+ */
+class P2QuantileEstimatorTest {
+
+    private static final int SAMPLES = 20_000;
+
+    @Test
+    void getQuantile_WithNoObservations_ShouldReturnNaN() {
+        assertThat(P2QuantileEstimator.median().getQuantile()).isNaN();
+    }
+
+    @Test
+    void getQuantile_WithSingleObservation_ShouldReturnIt() {
+        P2QuantileEstimator estimator = P2QuantileEstimator.median();
+        estimator.add(7.5);
+
+        assertThat(estimator.getQuantile()).isEqualTo(7.5);
+        assertThat(estimator.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getQuantile_WithFewerThanFiveObservations_ShouldBeExact() {
+        P2QuantileEstimator odd = P2QuantileEstimator.median();
+        for (double value : new double[] {30, 10, 20}) {
+            odd.add(value);
+        }
+        P2QuantileEstimator even = P2QuantileEstimator.median();
+        for (double value : new double[] {4, 1, 3, 2}) {
+            even.add(value);
+        }
+
+        assertThat(odd.getQuantile()).isEqualTo(20);
+        assertThat(even.getQuantile()).isEqualTo(2.5);
+    }
+
+    @Test
+    void getQuantile_WithExactlyFiveObservations_ShouldBeExact() {
+        P2QuantileEstimator median = P2QuantileEstimator.median();
+        P2QuantileEstimator upperQuartile = new P2QuantileEstimator(0.75);
+        for (double value : new double[] {9, 3, 5, 1, 7}) {
+            median.add(value);
+            upperQuartile.add(value);
+        }
+
+        assertThat(median.getQuantile()).isEqualTo(5);
+        assertThat(upperQuartile.getQuantile()).isEqualTo(7);
+    }
+
+    @Test
+    void getQuantile_WithUniformDistribution_ShouldApproximateExactMedian() {
+        Random random = new Random(42);
+        assertCloseToExact(0.5, random::nextDouble, 0.01);
+    }
+
+    @Test
+    void getQuantile_WithNormalDistribution_ShouldApproximateExactMedian() {
+        Random random = new Random(7);
+        assertCloseToExact(0.5, () -> 25 + 4 * random.nextGaussian(), 0.1);
+    }
+
+    @Test
+    void getQuantile_WithSkewedDistribution_ShouldApproximateExactQuantile() {
+        Random random = new Random(11);
+        // Exponential prices, as a long right tail is common in market data
+        assertCloseToExact(0.9, () -> -10 * Math.log(1 - random.nextDouble()), 0.5);
+    }
+
+    @Test
+    void getQuantile_WithAscendingInput_ShouldApproximateExactMedian() {
+        P2QuantileEstimator estimator = P2QuantileEstimator.median();
+        for (int i = 1; i <= 10_001; i++) {
+            estimator.add(i);
+        }
+
+        assertThat(estimator.getQuantile()).isCloseTo(5_001, within(50.0));
+    }
+
+    @Test
+    void getQuantile_WithConstantInput_ShouldReturnTheConstant() {
+        P2QuantileEstimator estimator = P2QuantileEstimator.median();
+        for (int i = 0; i < 1_000; i++) {
+            estimator.add(12.5);
+        }
+
+        assertThat(estimator.getQuantile()).isEqualTo(12.5);
+    }
+
+    @Test
+    void constructor_WithQuantileOutsideOpenUnitInterval_ShouldThrow() {
+        assertThatThrownBy(() -> new P2QuantileEstimator(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new P2QuantileEstimator(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertCloseToExact(double quantile, DoubleSupplier distribution, double tolerance) {
+        P2QuantileEstimator estimator = new P2QuantileEstimator(quantile);
+        double[] values = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            values[i] = distribution.getAsDouble();
+            estimator.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertThat(estimator.getCount()).isEqualTo(SAMPLES);
+        assertThat(estimator.getQuantile()).isCloseTo(exactQuantile(values, quantile), within(tolerance));
+    }
+
+    /**
+     * Linear interpolation between closest ranks, as the estimator uses below five observations.
+     */
+    private static double exactQuantile(double[] sorted, double quantile) {
+        double rank = quantile * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+}